@@ -1,7 +1,14 @@
 package com.textstyle;
 
+import com.textstyle.controller.TextStyleConverterController;
+import com.textstyle.util.AppPreferences;
+import com.textstyle.util.BundledFonts;
+import com.textstyle.util.HistoryManager;
 import com.textstyle.util.I18N;
+import com.textstyle.util.Startup;
+import com.textstyle.util.TextStyler;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -12,10 +19,14 @@ import javafx.geometry.Rectangle2D;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Main application class for Text Style Converter.
  * Initializes the JavaFX application and loads the UI.
+ * Fonts, preferences, messages, the style table and the history are prepared
+ * on background threads while the FXML is parsed; the window is shown as soon
+ * as the tasks the first frame depends on are done.
  */
 public class TextStyleConverterApp extends Application {
 
@@ -23,12 +34,44 @@ public class TextStyleConverterApp extends Application {
     private static final int MIN_WIDTH = 900;
     private static final int MIN_HEIGHT = 650;
 
+    private Startup startup;
+    private CompletableFuture<Void> fonts;
+    private CompletableFuture<TextStyler> styles;
+    private CompletableFuture<HistoryManager> history;
+    private TextStyleConverterController controller;
+
+    /**
+     * Starts the startup tasks. Runs on the launcher thread, before {@link #start(Stage)}.
+     * Dependencies:
+     * <ul>
+     *   <li>fonts: none; the interface font is needed by the stylesheet before the first frame,
+     *       the other bundled fonts are registered when a displayed text needs them</li>
+     *   <li>preferences: none</li>
+     *   <li>messages: preferences (saved language)</li>
+     *   <li>styles: none; needed by the controller</li>
+     *   <li>history: none; entries reach the controller as history changes</li>
+     * </ul>
+     */
     @Override
-    public void start(Stage primaryStage) throws IOException {
-        loadFonts();
+    public void init() {
+        startup = new Startup();
+        fonts = startup.run("fonts", BundledFonts::loadBaseFont);
+        CompletableFuture<Void> preferences = startup.run("preferences", AppPreferences::load);
+        startup.run("messages", I18N::getCurrentLocale, preferences);
+        styles = startup.call("styles", TextStyler::new);
+        history = startup.call("history", () -> {
+            HistoryManager manager = new HistoryManager();
+            manager.loadAsync(Platform::runLater);
+            return manager;
+        });
+    }
 
+    @Override
+    public void start(Stage primaryStage) throws IOException {
         FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/main.fxml"));
+        loader.setControllerFactory(type -> new TextStyleConverterController(styles::join, history::join));
         Parent root = loader.load();
+        controller = loader.getController();
 
         // Get screen dimensions
         Rectangle2D screenBounds = Screen.getPrimary().getVisualBounds();
@@ -55,43 +98,32 @@ public class TextStyleConverterApp extends Application {
         // Update title when language changes
         I18N.addListener(locale -> primaryStage.setTitle(I18N.appTitle()));
 
-        primaryStage.setOnCloseRequest(event -> {
-            System.out.println("Application closed properly");
+        fonts.join();
+        scene.addPostLayoutPulseListener(new Runnable() {
+            @Override
+            public void run() {
+                scene.removePostLayoutPulseListener(this);
+                System.out.println("Time to first frame: " + startup.elapsedMillis() + " ms after init");
+            }
         });
-
         primaryStage.show();
 
         System.out.println("=== Text Style Converter Started ===");
         System.out.println("Window: " + (int) width + "x" + (int) height);
         System.out.println("Language: " + I18N.getCurrentLocale().getDisplayLanguage());
-        System.out.println("Styles loaded: 43+");
+        System.out.println("Styles loaded: " + styles.join().getAllStyles().size());
     }
 
     /**
-     * Loads Unicode fonts for proper character display.
+     * Saves pending history and preferences. Called however the application
+     * exits: closing the last window or {@link Platform#exit()}.
      */
-    private void loadFonts() {
-        String[] fontPaths = {
-            "/polices/NotoSans-Regular.ttf",
-            "/polices/NotoSansMath-Regular.ttf",
-            "/polices/NotoSansSymbols-Regular.ttf",
-            "/polices/NotoSansSymbols2-Regular.ttf",
-            "/polices/STIXTwoMath-Regular.ttf"
-        };
-
-        for (String fontPath : fontPaths) {
-            try (InputStream fontStream = getClass().getResourceAsStream(fontPath)) {
-                if (fontStream != null) {
-                    javafx.scene.text.Font.loadFont(fontStream, 14);
-                    System.out.println("Font loaded: " + fontPath);
-                } else {
-                    System.out.println("Font not found: " + fontPath +
-                                     " (using system fonts)");
-                }
-            } catch (IOException e) {
-                System.err.println("Font loading error: " + fontPath);
-            }
+    @Override
+    public void stop() {
+        if (controller != null) {
+            controller.shutdown();
         }
+        System.out.println("Application closed properly");
     }
 
     /**
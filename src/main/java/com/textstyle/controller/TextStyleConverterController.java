@@ -2,12 +2,26 @@ package com.textstyle.controller;
 
 import com.textstyle.model.TextStyle;
 import com.textstyle.model.HistoryEntry;
+import com.textstyle.model.ResultsPagination;
 import com.textstyle.util.TextStyler;
+import com.textstyle.util.AppPreferences;
+import com.textstyle.util.BundledFonts;
+import com.textstyle.util.HistoryChange;
+import com.textstyle.util.HistoryExporter;
 import com.textstyle.util.HistoryManager;
 import com.textstyle.util.I18N;
+import com.textstyle.util.PerfLog;
+import com.textstyle.util.StyleExporter;
+import com.textstyle.util.StyleSearchIndex;
 
 import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.StringBinding;
+import javafx.beans.binding.StringExpression;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -17,6 +31,7 @@ import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.scene.input.Clipboard;
 import javafx.scene.input.ClipboardContent;
+import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 import javafx.stage.FileChooser;
 import javafx.scene.paint.Color;
@@ -28,6 +43,10 @@ import javafx.util.Duration;
 import java.io.*;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 /**
  * Main controller for the Text Style Converter application.
@@ -38,6 +57,7 @@ public class TextStyleConverterController implements Initializable {
     // Existing FXML fields
     @FXML private TextArea textInput;
     @FXML private Button convertBtn;
+    @FXML private CheckBox autoPreviewCheck;
     @FXML private Button clearBtn;
     @FXML private TextField searchFilter;
     @FXML private ComboBox<Integer> resultsPerPageCombo;
@@ -46,9 +66,11 @@ public class TextStyleConverterController implements Initializable {
     @FXML private FlowPane resultsContainer;
     @FXML private HBox paginationBox;
     @FXML private VBox historyPane;
-    @FXML private VBox historyList;
+    @FXML private ListView<HistoryEntry> historyList;
+    @FXML private TextField historySearchField;
     @FXML private Button clearHistoryBtn;
     @FXML private Button exportHistoryBtn;
+    @FXML private Button exportStylesBtn;
     @FXML private Button toggleHistoryBtn;
     @FXML private Button helpBtn;
     @FXML private BorderPane rootPane;
@@ -66,22 +88,51 @@ public class TextStyleConverterController implements Initializable {
     @FXML private Label perPageLabel;
     @FXML private ComboBox<Locale> languageCombo;
     
+    private final Supplier<TextStyler> stylerSource;
+    private final Supplier<HistoryManager> historyManagerSource;
     private TextStyler styler;
     private HistoryManager historyManager;
-    private Map<String, TextStyle> currentResults;
-    private List<Map.Entry<String, TextStyle>> filteredResults;
-    private int currentPage = 1;
-    private int resultsPerPage = 12;
+    private StyleSearchIndex searchIndex;
+    private ResultsPagination pagination;
     private boolean hasGeneratedResults = false;
+    private long historyListVersion = -1;
+    
+    // Texts that follow the locale; buttons switch back to them after temporary texts
+    private final IntegerProperty charCount = new SimpleIntegerProperty();
+    private final StringExpression generateText = Bindings.concat("✨ ", I18N.binding("btn.generate"));
+    private final StringExpression exportText = Bindings.concat("📥 ", I18N.binding("btn.export"));
+    
+    // Input event coalescing
+    private static final Duration INPUT_INTERVAL = 
+        Duration.millis(Integer.getInteger("textstyle.inputDebounceMs", 0));
+    private static final Duration SEARCH_INTERVAL = 
+        Duration.millis(Integer.getInteger("textstyle.searchDebounceMs", 150));
+    private static final Duration PREVIEW_INTERVAL = 
+        Duration.millis(Integer.getInteger("textstyle.previewDebounceMs", 250));
+    private static final int ASYNC_COUNT_THRESHOLD = 100_000;
+    private static final int MAX_HISTORY_SEARCH_RESULTS = 1000;
+    private Coalescer charCountCoalescer;
+    private Coalescer searchCoalescer;
+    private Coalescer historySearchCoalescer;
+    private Coalescer previewCoalescer;
+    private Coalescer inputFontsCoalescer;
+    private long charCountRequest = 0;
+    
+    // Detached cards built ahead of time for the next results page
+    private List<VBox> preparedCards;
+    private int preparedPage;
+    private long preparedGeneration = -1;
+    private final ExecutorService backgroundExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "textstyle-background");
+        thread.setDaemon(true);
+        return thread;
+    });
     
     // Tutorial system
     private TutorialOverlay tutorialOverlay;
-    private static final String TUTORIAL_PREF_FILE = System.getProperty("user.home") + 
-                                                      "/.textstyle_tutorial_done.txt";
     
-    private static final String UNICODE_FONT_FAMILY = "Noto Sans, Noto Sans Math, " +
-                                                     "Noto Sans Symbols, Noto Sans Symbols 2, " +
-                                                     "Noto Color Emoji, STIX Two Math";
+    private static final List<Integer> PAGE_SIZES = Arrays.asList(6, 12, 24, 48);
+    
     
     // Priority order grouped by font families
     private static final List<String> PRIORITY_STYLES = Arrays.asList(
@@ -99,18 +150,37 @@ public class TextStyleConverterController implements Initializable {
         "cute", "zalgoLight", "zalgoHeavy"
     );
 
+    /**
+     * Creates a controller building its style table and history itself.
+     */
+    public TextStyleConverterController() {
+        this(TextStyler::new, () -> {
+            HistoryManager manager = new HistoryManager();
+            manager.loadAsync(Platform::runLater);
+            return manager;
+        });
+    }
+
+    /**
+     * Creates a controller using a style table and a loading history prepared
+     * elsewhere; the suppliers are called once, during {@link #initialize}.
+     */
+    public TextStyleConverterController(Supplier<TextStyler> styler, Supplier<HistoryManager> historyManager) {
+        this.stylerSource = styler;
+        this.historyManagerSource = historyManager;
+    }
+
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        styler = new TextStyler();
-        historyManager = new HistoryManager();
-        currentResults = new HashMap<>();
-        filteredResults = new ArrayList<>();
+        styler = stylerSource.get();
+        historyManager = historyManagerSource.get();
+        searchIndex = new StyleSearchIndex(styler.getAllStyles().values(), PRIORITY_STYLES);
+        pagination = new ResultsPagination(backgroundExecutor, Platform::runLater);
         
         setupControls();
         setupLanguageSelector();
         setupListeners();
-        loadHistory();
-        updateAllTexts(I18N.getCurrentLocale());
+        bindTexts();
         
         Platform.runLater(() -> {
             textInput.requestFocus();
@@ -120,11 +190,27 @@ public class TextStyleConverterController implements Initializable {
         });
     }
 
+    /**
+     * Writes pending history and preference changes before the application exits.
+     */
+    public void shutdown() {
+        historyManager.flush();
+        AppPreferences.flush();
+    }
+
     private void setupControls() {
-        resultsPerPageCombo.setItems(FXCollections.observableArrayList(6, 12, 24, 48));
-        resultsPerPageCombo.setValue(12);
+        int pageSize = AppPreferences.getInt(AppPreferences.RESULTS_PER_PAGE, 12);
+        if (!PAGE_SIZES.contains(pageSize)) {
+            pageSize = 12;
+        }
+        resultsPerPageCombo.setItems(FXCollections.observableArrayList(PAGE_SIZES));
+        resultsPerPageCombo.setValue(pageSize);
+        pagination.setPageSize(pageSize);
+        autoPreviewCheck.setSelected(AppPreferences.getBoolean(AppPreferences.AUTO_PREVIEW,
+                                                               autoPreviewCheck.isSelected()));
         
         textInput.setWrapText(true);
+        historyList.setCellFactory(list -> new HistoryEntryCell());
         searchFilter.setDisable(true);
         resultsPerPageCombo.setDisable(true);
         historyPane.setVisible(false);
@@ -138,22 +224,51 @@ public class TextStyleConverterController implements Initializable {
         languageCombo.setButtonCell(new LocaleListCell());
         
         languageCombo.setOnAction(e -> I18N.setLocale(languageCombo.getValue()));
-        I18N.addListener(this::updateAllTexts);
+        // Registered after the style index's own listener, so the active query
+        // runs again on the names of the new locale
+        I18N.addListener(locale -> {
+            if (hasGeneratedResults && !searchFilter.getText().trim().isEmpty()) {
+                filterAndPaginate();
+            }
+        });
     }
 
     private void setupListeners() {
-        textInput.textProperty().addListener((obs, oldVal, newVal) -> updateCharCount());
+        charCountCoalescer = new Coalescer(INPUT_INTERVAL, this::updateCharCount);
+        searchCoalescer = new Coalescer(SEARCH_INTERVAL, () -> {
+            if (hasGeneratedResults) filterAndPaginate();
+        });
+        previewCoalescer = new Coalescer(PREVIEW_INTERVAL, this::runSpeculativePreview);
+        historySearchCoalescer = new Coalescer(SEARCH_INTERVAL, () -> {
+            loadFontsFor(historySearchField);
+            loadHistory();
+        });
+        inputFontsCoalescer = new Coalescer(INPUT_INTERVAL, () -> loadFontsFor(textInput));
+        
+        textInput.textProperty().addListener((obs, oldVal, newVal) -> {
+            charCountCoalescer.trigger();
+            inputFontsCoalescer.trigger();
+            if (autoPreviewCheck.isSelected()) previewCoalescer.trigger();
+        });
+        autoPreviewCheck.selectedProperty().addListener((obs, oldVal, selected) -> {
+            AppPreferences.set(AppPreferences.AUTO_PREVIEW, selected);
+            if (selected) {
+                runSpeculativePreview();
+            } else {
+                previewCoalescer.cancel();
+                pagination.cancelPending();
+            }
+        });
         convertBtn.setOnAction(e -> convertText());
         clearBtn.setOnAction(e -> clearInput());
         helpBtn.setOnAction(e -> showHelpMenu());
         
-        searchFilter.textProperty().addListener((obs, oldVal, newVal) -> {
-            if (hasGeneratedResults) filterAndPaginate();
-        });
+        searchFilter.textProperty().addListener((obs, oldVal, newVal) -> searchCoalescer.trigger());
         
         resultsPerPageCombo.setOnAction(e -> {
+            pagination.setPageSize(resultsPerPageCombo.getValue());
+            AppPreferences.set(AppPreferences.RESULTS_PER_PAGE, resultsPerPageCombo.getValue());
             if (hasGeneratedResults) {
-                resultsPerPage = resultsPerPageCombo.getValue();
                 filterAndPaginate();
             }
         });
@@ -161,7 +276,9 @@ public class TextStyleConverterController implements Initializable {
         toggleHistoryBtn.setOnAction(e -> toggleHistory());
         clearHistoryBtn.setOnAction(e -> clearHistory());
         exportHistoryBtn.setOnAction(e -> exportHistory());
-        historyManager.addListener(this::loadHistory);
+        exportStylesBtn.setOnAction(e -> exportStyles());
+        historySearchField.textProperty().addListener((obs, oldVal, newVal) -> historySearchCoalescer.trigger());
+        historyManager.addListener(this::applyHistoryChanges, Platform::runLater);
         
         textInput.setOnKeyPressed(e -> {
             if (e.isControlDown() && e.getCode().toString().equals("ENTER")) {
@@ -170,38 +287,67 @@ public class TextStyleConverterController implements Initializable {
         });
     }
 
-    private void updateAllTexts(Locale newLocale) {
-        titleText.setText(I18N.appTitle().toUpperCase());
-        subtitleText.setText(I18N.appSubtitle());
-        footerTitleText.setText(I18N.get("footer.title"));
-        footerDisclaimerText.setText(I18N.get("footer.disclaimer"));
-        footerHintText.setText(I18N.get("footer.hint"));
-        
-        historyTitleLabel.setText("📜 " + I18N.get("section.history"));
-        inputSectionLabel.setText("⌨️ " + I18N.get("section.input") + " :");
-        inputExampleText.setText(I18N.get("input.example"));
-        stylesSectionLabel.setText("🎨 " + I18N.get("section.styles"));
-        perPageLabel.setText(I18N.get("pagination.resultsPerPage"));
-        
-        textInput.setPromptText(I18N.get("input.placeholder"));
-        searchFilter.setPromptText(I18N.get("search.placeholder"));
-        
-        convertBtn.setText("✨ " + I18N.btnGenerate());
-        toggleHistoryBtn.setText("📜 " + I18N.get("section.history"));
-        clearHistoryBtn.setText("🗑️ " + I18N.get("btn.clearHistory"));
-        exportHistoryBtn.setText("📥 " + I18N.get("btn.export"));
+    /**
+     * Binds every static text to its message once. Switching language then
+     * only updates the text of existing nodes: no card, list cell or
+     * conversion is rebuilt.
+     */
+    private void bindTexts() {
+        titleText.textProperty().bind(Bindings.createStringBinding(
+            () -> I18N.appTitle().toUpperCase(), I18N.localeProperty()));
+        subtitleText.textProperty().bind(I18N.binding("app.subtitle"));
+        footerTitleText.textProperty().bind(I18N.binding("footer.title"));
+        footerDisclaimerText.textProperty().bind(I18N.binding("footer.disclaimer"));
+        footerHintText.textProperty().bind(I18N.binding("footer.hint"));
+        
+        historyTitleLabel.textProperty().bind(Bindings.concat("📜 ", I18N.binding("section.history")));
+        inputSectionLabel.textProperty().bind(Bindings.concat("⌨️ ", I18N.binding("section.input"), " :"));
+        inputExampleText.textProperty().bind(I18N.binding("input.example"));
+        stylesSectionLabel.textProperty().bind(Bindings.concat("🎨 ", I18N.binding("section.styles")));
+        perPageLabel.textProperty().bind(I18N.binding("pagination.resultsPerPage"));
+        
+        textInput.promptTextProperty().bind(I18N.binding("input.placeholder"));
+        searchFilter.promptTextProperty().bind(I18N.binding("search.placeholder"));
+        historySearchField.promptTextProperty().bind(I18N.binding("history.searchPlaceholder"));
+        
+        convertBtn.textProperty().bind(generateText);
+        autoPreviewCheck.textProperty().bind(I18N.binding("input.autoPreview"));
+        toggleHistoryBtn.textProperty().bind(Bindings.concat("📜 ", I18N.binding("section.history")));
+        clearHistoryBtn.textProperty().bind(Bindings.concat("🗑️ ", I18N.binding("btn.clearHistory")));
+        exportHistoryBtn.textProperty().bind(exportText);
+        exportStylesBtn.textProperty().bind(exportText);
         helpBtn.setText("❓");
         
+        charCountLabel.textProperty().bind(Bindings.createStringBinding(
+            () -> I18N.charCount(charCount.get()), charCount, I18N.localeProperty()));
+        
         updateCharCount();
         updateUIState();
-        
-        if (hasGeneratedResults) updateDisplay();
         loadHistory();
     }
 
+    /**
+     * Updates the character counter with the code point count of the input.
+     * Very large texts are counted on the background thread; stale results are dropped.
+     */
     private void updateCharCount() {
-        int count = textInput.getText().length();
-        charCountLabel.setText(I18N.charCount(count));
+        charCountCoalescer.cancel();
+        String text = textInput.getText();
+        long request = ++charCountRequest;
+        
+        if (text.length() < ASYNC_COUNT_THRESHOLD) {
+            charCount.set(text.codePointCount(0, text.length()));
+            return;
+        }
+        
+        backgroundExecutor.execute(() -> {
+            int count = text.codePointCount(0, text.length());
+            Platform.runLater(() -> {
+                if (request == charCountRequest) {
+                    charCount.set(count);
+                }
+            });
+        });
     }
 
     @FXML
@@ -214,112 +360,129 @@ public class TextStyleConverterController implements Initializable {
             return;
         }
         
+        // Live preview already converted this text: show it right away
+        if (autoPreviewCheck.isSelected() && pagination.getSourceText().equals(textInput.getText())
+                && pagination.isPageReady(pagination.getPage())) {
+            previewCoalescer.cancel();
+            showGeneratedResults(text);
+            return;
+        }
+        
         convertBtn.setDisable(true);
-        convertBtn.setText(I18N.get("btn.generating"));
+        convertBtn.textProperty().bind(I18N.binding("btn.generating"));
         
-        Task<Map<String, TextStyle>> task = new Task<>() {
+        Task<List<TextStyle>> task = new Task<>() {
             @Override
-            protected Map<String, TextStyle> call() throws Exception {
+            protected List<TextStyle> call() throws Exception {
                 Thread.sleep(100);
-                return styler.getAllStyles();
+                return searchIndex.getAllRanked();
             }
         };
         
         task.setOnSucceeded(e -> {
-            currentResults = task.getValue();
-            filteredResults = sortResultsByPriority(new ArrayList<>(currentResults.entrySet()));
-            currentPage = 1;
-            hasGeneratedResults = true;
-            
-            historyManager.addEntry(text);
-            updateUIState();
-            updateDisplay();
-            
-            int styleCount = filteredResults.size();
-            showNotification(I18N.stylesGenerated(styleCount));
+            showGeneratedResults(text);
             
             convertBtn.setDisable(false);
-            convertBtn.setText("✨ " + I18N.btnGenerate());
-            resultsContainer.requestFocus();
+            convertBtn.textProperty().bind(generateText);
         });
         
         task.setOnFailed(e -> {
             showNotification(I18N.get("notif.conversionError"), "error");
             convertBtn.setDisable(false);
-            convertBtn.setText("✨ " + I18N.btnGenerate());
+            convertBtn.textProperty().bind(generateText);
         });
         
         new Thread(task).start();
     }
     
-    private List<Map.Entry<String, TextStyle>> sortResultsByPriority(List<Map.Entry<String, TextStyle>> results) {
-        results.sort((a, b) -> {
-            int priorityA = PRIORITY_STYLES.indexOf(a.getKey());
-            int priorityB = PRIORITY_STYLES.indexOf(b.getKey());
-            
-            if (priorityA == -1) priorityA = Integer.MAX_VALUE;
-            if (priorityB == -1) priorityB = Integer.MAX_VALUE;
-            
-            return Integer.compare(priorityA, priorityB);
-        });
+    private void showGeneratedResults(String text) {
+        pagination.setItems(searchIndex.getAllRanked());
+        hasGeneratedResults = true;
+        
+        historyManager.addEntry(text);
+        updateUIState();
+        updateDisplay();
         
-        return results;
+        int styleCount = pagination.getItems().size();
+        showNotification(I18N.stylesGenerated(styleCount));
+        resultsContainer.requestFocus();
     }
-
+    
     @FXML
     private void clearInput() {
         textInput.clear();
         textInput.requestFocus();
         updateCharCount();
-        currentResults.clear();
-        filteredResults.clear();
+        resetResults();
+        showNotification(I18N.get("notif.textCleared"), "info");
+    }
+    
+    private void resetResults() {
+        pagination.cancelPending();
+        pagination.setItems(Collections.emptyList());
+        discardPreparedCards();
         hasGeneratedResults = false;
-        currentPage = 1;
         
         displayEmptyState();
         paginationBox.getChildren().clear();
-        paginationInfoLabel.setText(I18N.get("pagination.empty"));
+        paginationInfoLabel.textProperty().bind(I18N.binding("pagination.empty"));
         searchFilter.clear();
         updateUIState();
-        showNotification(I18N.get("notif.textCleared"), "info");
+    }
+    
+    // ===== LIVE PREVIEW =====
+    
+    /**
+     * Converts the previews of the visible page in the background while the user types.
+     * A newer run cancels the previous one; only the leading code points needed for
+     * the card previews are converted.
+     */
+    private void runSpeculativePreview() {
+        pagination.cancelPending();
+        String text = textInput.getText();
+        
+        if (text.trim().isEmpty()) {
+            if (hasGeneratedResults) resetResults();
+            return;
+        }
+        
+        if (!hasGeneratedResults) {
+            pagination.setItems(searchIndex.getAllRanked());
+        }
+        pagination.setSourceText(text);
+        pagination.loadPage(pagination.getPage()).thenAccept(ready -> {
+            if (!ready || !text.equals(textInput.getText())) return;
+            hasGeneratedResults = true;
+            updateDisplay();
+        });
     }
 
     private void updateUIState() {
-        boolean hasResults = hasGeneratedResults && !filteredResults.isEmpty();
+        boolean hasResults = hasGeneratedResults && !pagination.getItems().isEmpty();
         searchFilter.setDisable(!hasResults);
         resultsPerPageCombo.setDisable(!hasResults);
+        exportStylesBtn.setDisable(!hasGeneratedResults);
         
         if (!hasResults) {
             searchFilter.clear();
-            paginationInfoLabel.setText(hasGeneratedResults ? 
-                I18N.get("pagination.noResults") : 
-                I18N.get("pagination.empty"));
+            paginationInfoLabel.textProperty().bind(I18N.binding(hasGeneratedResults ? 
+                "pagination.noResults" : "pagination.empty"));
         }
     }
 
     private void filterAndPaginate() {
+        searchCoalescer.cancel();
         if (!hasGeneratedResults) return;
         
-        String searchTerm = searchFilter.getText().toLowerCase().trim();
+        String searchTerm = searchFilter.getText().trim();
         
-        if (searchTerm.isEmpty()) {
-            filteredResults = sortResultsByPriority(new ArrayList<>(currentResults.entrySet()));
-        } else {
-            List<Map.Entry<String, TextStyle>> filtered = currentResults.entrySet().stream()
-                .filter(entry -> {
-                    TextStyle style = entry.getValue();
-                    return style.getName().toLowerCase().contains(searchTerm) ||
-                           style.getDescription().toLowerCase().contains(searchTerm) ||
-                           style.getCategory().toLowerCase().contains(searchTerm);
-                })
-                .toList();
-            filteredResults = sortResultsByPriority(new ArrayList<>(filtered));
-        }
+        long start = PerfLog.start();
+        pagination.setItems(searchIndex.query(searchTerm));
+        PerfLog.log("Style search \"" + searchTerm + "\"", start);
         
-        currentPage = 1;
         updateDisplay();
         
-        if (filteredResults.isEmpty()) {
+        if (pagination.getItems().isEmpty()) {
             showNotification(I18N.get("notif.noResultsFor", searchTerm), "info");
         }
     }
@@ -333,110 +496,185 @@ public class TextStyleConverterController implements Initializable {
     private void displayResults() {
         resultsContainer.getChildren().clear();
         
-        if (!hasGeneratedResults || filteredResults.isEmpty()) {
+        if (!hasGeneratedResults || pagination.getItems().isEmpty()) {
             displayEmptyState();
             return;
         }
         
-        int totalResults = filteredResults.size();
-        int totalPages = (int) Math.ceil((double) totalResults / resultsPerPage);
+        pagination.setSourceText(textInput.getText());
+        int page = pagination.getPage();
         
-        if (currentPage > totalPages && totalPages > 0) {
-            currentPage = totalPages;
+        long start = PerfLog.start();
+        List<VBox> cards = takePreparedCards(page);
+        if (cards == null) {
+            cards = createPageCards(page);
+        }
+        resultsContainer.getChildren().setAll(cards);
+        PerfLog.log("Result cards shown (" + cards.size() + ")", start);
+        
+        if (PerfLog.isEnabled()) {
+            long cssStart = PerfLog.start();
+            resultsContainer.applyCss();
+            resultsContainer.layout();
+            PerfLog.log("Result cards CSS pass", cssStart);
         }
         
-        int startIndex = (currentPage - 1) * resultsPerPage;
-        int endIndex = Math.min(startIndex + resultsPerPage, totalResults);
-        
-        List<Map.Entry<String, TextStyle>> currentPageResults = 
-            filteredResults.subList(startIndex, endIndex);
-        
-        for (Map.Entry<String, TextStyle> entry : currentPageResults) {
-            String convertedText = entry.getValue().convert(textInput.getText());
-            VBox styleCard = createStyleCard(entry.getKey(), entry.getValue(), convertedText);
-            resultsContainer.getChildren().add(styleCard);
+        prefetchNextPage();
+    }
+
+    private List<VBox> createPageCards(int page) {
+        List<VBox> cards = new ArrayList<>();
+        for (TextStyle style : pagination.getPageItems(page)) {
+            cards.add(createStyleCard(style, pagination.getPreview(style), pagination.getSourceText()));
+        }
+        return cards;
+    }
+
+    /**
+     * Converts the next page's previews in the background, then builds its cards
+     * detached from the scene so that paging forward only swaps nodes.
+     */
+    private void prefetchNextPage() {
+        if (!pagination.hasNextPage()) return;
+        
+        int page = pagination.getPage();
+        int nextPage = page + 1;
+        long generation = pagination.getGeneration();
+        pagination.loadPage(nextPage).thenAccept(ready -> {
+            if (ready && hasGeneratedResults && pagination.getPage() == page
+                    && pagination.getGeneration() == generation) {
+                preparedCards = createPageCards(nextPage);
+                preparedPage = nextPage;
+                preparedGeneration = generation;
+            }
+        });
+    }
+
+    private List<VBox> takePreparedCards(int page) {
+        List<VBox> cards = null;
+        if (preparedCards != null && preparedPage == page
+                && preparedGeneration == pagination.getGeneration()) {
+            cards = preparedCards;
         }
+        discardPreparedCards();
+        return cards;
     }
 
-    private VBox createStyleCard(String styleId, TextStyle style, String convertedText) {
+    private void discardPreparedCards() {
+        preparedCards = null;
+        preparedGeneration = -1;
+    }
+
+    private VBox createStyleCard(TextStyle style, String previewText, String sourceText) {
         VBox card = new VBox(10);
         card.getStyleClass().add("style-card");
         card.setPadding(new Insets(15));
         
-        Label nameLabel = new Label(style.getName());
-        nameLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 14px;");
+        Label nameLabel = new Label();
+        nameLabel.textProperty().bind(I18N.styleNameBinding(style.getId()));
+        nameLabel.getStyleClass().add("style-name");
         
-        Label descLabel = new Label(style.getDescription());
-        descLabel.setStyle("-fx-text-fill: gray; -fx-font-size: 11px;");
+        Label descLabel = new Label();
+        descLabel.textProperty().bind(I18N.styleDescriptionBinding(style.getId()));
+        descLabel.getStyleClass().add("style-description");
         descLabel.setWrapText(true);
         
-        String previewText = convertedText;
-        final int MAX_PREVIEW_LENGTH = 50;
-        if (previewText.length() > MAX_PREVIEW_LENGTH) {
-            previewText = previewText.substring(0, MAX_PREVIEW_LENGTH) + "...";
-        }
-        
-        Label previewLabel = new Label(previewText);
-        previewLabel.setStyle("-fx-font-family: '" + UNICODE_FONT_FAMILY + "'; " +
-                              "-fx-font-size: 16px; " +
-                              "-fx-padding: 10px; " +
-                              "-fx-background-color: #f8f9fa; " +
-                              "-fx-background-radius: 5px; " +
-                              "-fx-border-color: #dee2e6; " +
-                              "-fx-border-width: 1px; " +
-                              "-fx-border-radius: 5px;");
+        Label previewLabel = new Label();
+        whenFontsReady(previewText, () -> previewLabel.setText(previewText));
+        previewLabel.getStyleClass().add("style-preview");
         previewLabel.setWrapText(true);
         previewLabel.setMaxHeight(60);
         previewLabel.setMinHeight(60);
+        if (!BundledFonts.canRender(previewText)) {
+            // Some shown characters have no glyph in the bundled fonts and may show as boxes;
+            // only the preview is checked, so the cost does not grow with the text
+            previewLabel.getStyleClass().add("style-preview-unrenderable");
+            Tooltip tooltip = new Tooltip();
+            tooltip.textProperty().bind(I18N.binding("card.unrenderable"));
+            previewLabel.setTooltip(tooltip);
+        }
         
         HBox buttonsBox = new HBox(8);
         buttonsBox.setAlignment(Pos.CENTER);
         
-        Button copyBtn = new Button("📋 " + I18N.btnCopy());
+        Button copyBtn = new Button();
+        StringExpression copyText = Bindings.concat("📋 ", I18N.binding("btn.copy"));
+        copyBtn.textProperty().bind(copyText);
         copyBtn.getStyleClass().add("copy-button");
         copyBtn.setOnAction(e -> {
-            copyToClipboard(convertedText, style.getName());
-            showCopiedFeedback(copyBtn);
+            copyToClipboard(style.convert(sourceText), style.getName());
+            showCopiedFeedback(copyBtn, copyText);
         });
         
-        Button viewBtn = new Button("👁 " + I18N.btnView());
+        Button viewBtn = new Button();
+        viewBtn.textProperty().bind(Bindings.concat("👁 ", I18N.binding("btn.view")));
         viewBtn.getStyleClass().add("view-button");
-        viewBtn.setOnAction(e -> showFullTextDialog(style.getName(), convertedText));
+        viewBtn.setOnAction(e -> showFullTextDialog(style.getName(), style.convert(sourceText)));
         
         buttonsBox.getChildren().addAll(copyBtn, viewBtn);
         
-        Label categoryLabel = new Label(I18N.get("common.category") + ": " + style.getCategory());
-        categoryLabel.setStyle("-fx-text-fill: #0066cc; -fx-font-size: 10px;");
+        Label categoryLabel = new Label();
+        categoryLabel.textProperty().bind(Bindings.concat(
+            I18N.binding("common.category"), ": ", I18N.categoryBinding(style.getCategoryKey())));
+        categoryLabel.getStyleClass().add("style-category");
         
         card.getChildren().addAll(nameLabel, descLabel, previewLabel, buttonsBox, categoryLabel);
         
         return card;
     }
 
-    private void showCopiedFeedback(Button button) {
-        String originalText = button.getText();
-        button.setText("✓ " + I18N.get("tutorial.copied"));
+    private void showCopiedFeedback(Button button, StringExpression originalText) {
+        button.textProperty().bind(Bindings.concat("✓ ", I18N.binding("tutorial.copied")));
         button.setStyle("-fx-background-color: #28a745;");
         
         PauseTransition pause = new PauseTransition(Duration.seconds(2));
         pause.setOnFinished(e -> {
-            button.setText(originalText);
+            button.textProperty().bind(originalText);
             button.setStyle("");
         });
         pause.play();
     }
 
+    /**
+     * Runs an action showing a text once the bundled fonts it needs are registered.
+     * Fonts are registered in the background; the action runs at once when none is missing.
+     */
+    private static void whenFontsReady(String text, Runnable show) {
+        CompletableFuture<Void> fonts = BundledFonts.loadFontsFor(text);
+        if (fonts.isDone()) {
+            show.run();
+        } else {
+            fonts.thenRunAsync(show, Platform::runLater);
+        }
+    }
+
+    /**
+     * Registers the fonts typed or pasted text needs, then lays the field out
+     * again so the new glyphs replace the missing-glyph boxes. The text is
+     * scanned in the background: the input can hold megabytes.
+     */
+    private static void loadFontsFor(TextInputControl field) {
+        BundledFonts.loadFontsInBackground(field.getText()).thenAcceptAsync(registered -> {
+            if (registered) {
+                // A new font instance invalidates the text layout even though it is equal
+                Font font = field.getFont();
+                field.setFont(new Font(font.getName(), font.getSize()));
+            }
+        }, Platform::runLater);
+    }
+
     private void showFullTextDialog(String styleName, String fullText) {
         Alert dialog = new Alert(Alert.AlertType.INFORMATION);
         dialog.setTitle(styleName);
         dialog.setHeaderText(I18N.get("dialog.fullText", styleName));
         
-        TextArea textArea = new TextArea(fullText);
+        TextArea textArea = new TextArea();
+        whenFontsReady(fullText, () -> textArea.setText(fullText));
         textArea.setEditable(false);
         textArea.setWrapText(true);
         textArea.setPrefRowCount(15);
         textArea.setPrefColumnCount(50);
-        textArea.setStyle("-fx-font-family: '" + UNICODE_FONT_FAMILY + "'; -fx-font-size: 16px;");
+        textArea.getStyleClass().add("full-text-area");
         
         VBox content = new VBox(10);
         content.getChildren().add(textArea);
@@ -462,23 +700,25 @@ public class TextStyleConverterController implements Initializable {
         Label icon = new Label("🔤");
         icon.setStyle("-fx-font-size: 64px;");
         
-        Label title = new Label(hasGeneratedResults ? 
-            I18N.get("empty.noResults.title") : 
-            I18N.get("empty.noText.title"));
+        Label title = new Label();
+        title.textProperty().bind(I18N.binding(hasGeneratedResults ? 
+            "empty.noResults.title" : "empty.noText.title"));
         title.setStyle("-fx-font-size: 20px; -fx-font-weight: bold;");
         
-        Label message = new Label(hasGeneratedResults ?
-            I18N.get("empty.noResults.message") :
-            I18N.get("empty.noText.message"));
+        Label message = new Label();
+        message.textProperty().bind(I18N.binding(hasGeneratedResults ?
+            "empty.noResults.message" : "empty.noText.message"));
         message.setStyle("-fx-text-fill: gray;");
         
-        Label hint = new Label(I18N.get("empty.noText.hint"));
+        Label hint = new Label();
+        hint.textProperty().bind(I18N.binding("empty.noText.hint"));
         hint.setStyle("-fx-text-fill: #0066cc; -fx-font-style: italic;");
         
         emptyState.getChildren().addAll(icon, title, message, hint);
         
         if (hasGeneratedResults) {
-            Button clearSearchBtn = new Button(I18N.get("empty.noResults.btnClear"));
+            Button clearSearchBtn = new Button();
+            clearSearchBtn.textProperty().bind(I18N.binding("empty.noResults.btnClear"));
             clearSearchBtn.setOnAction(e -> {
                 searchFilter.clear();
                 filterAndPaginate();
@@ -492,29 +732,28 @@ public class TextStyleConverterController implements Initializable {
     private void createPagination() {
         paginationBox.getChildren().clear();
         
-        if (!hasGeneratedResults || filteredResults.isEmpty()) {
-            paginationInfoLabel.setText(hasGeneratedResults ? 
-                I18N.get("pagination.noResults") :
-                I18N.get("pagination.empty"));
+        if (!hasGeneratedResults || pagination.getItems().isEmpty()) {
+            paginationInfoLabel.textProperty().bind(I18N.binding(hasGeneratedResults ? 
+                "pagination.noResults" : "pagination.empty"));
             return;
         }
         
-        int totalResults = filteredResults.size();
-        int totalPages = (int) Math.ceil((double) totalResults / resultsPerPage);
+        int totalResults = pagination.getItems().size();
+        int totalPages = pagination.getTotalPages();
+        int currentPage = pagination.getPage();
         
         if (totalPages <= 1) {
-            paginationInfoLabel.setText(I18N.paginationInfo(1, 1, totalResults));
+            paginationInfoLabel.textProperty().bind(paginationInfoBinding(1, 1, totalResults));
             return;
         }
         
-        paginationInfoLabel.setText(I18N.paginationInfo(currentPage, totalPages, totalResults));
+        paginationInfoLabel.textProperty().bind(paginationInfoBinding(currentPage, totalPages, totalResults));
         
         Button prevBtn = new Button("◀");
         prevBtn.setDisable(currentPage == 1);
         prevBtn.setOnAction(e -> {
             if (currentPage > 1) {
-                currentPage--;
-                updateDisplay();
+                goToPage(currentPage - 1);
             }
         });
         paginationBox.getChildren().add(prevBtn);
@@ -529,10 +768,7 @@ public class TextStyleConverterController implements Initializable {
         
         if (startPage > 1) {
             Button firstBtn = new Button("1");
-            firstBtn.setOnAction(e -> {
-                currentPage = 1;
-                updateDisplay();
-            });
+            firstBtn.setOnAction(e -> goToPage(1));
             paginationBox.getChildren().add(firstBtn);
             
             if (startPage > 2) {
@@ -547,10 +783,7 @@ public class TextStyleConverterController implements Initializable {
             if (i == currentPage) {
                 pageBtn.getStyleClass().add("active");
             }
-            pageBtn.setOnAction(e -> {
-                currentPage = page;
-                updateDisplay();
-            });
+            pageBtn.setOnAction(e -> goToPage(page));
             paginationBox.getChildren().add(pageBtn);
         }
         
@@ -561,10 +794,7 @@ public class TextStyleConverterController implements Initializable {
             }
             
             Button lastBtn = new Button(String.valueOf(totalPages));
-            lastBtn.setOnAction(e -> {
-                currentPage = totalPages;
-                updateDisplay();
-            });
+            lastBtn.setOnAction(e -> goToPage(totalPages));
             paginationBox.getChildren().add(lastBtn);
         }
         
@@ -572,13 +802,22 @@ public class TextStyleConverterController implements Initializable {
         nextBtn.setDisable(currentPage == totalPages);
         nextBtn.setOnAction(e -> {
             if (currentPage < totalPages) {
-                currentPage++;
-                updateDisplay();
+                goToPage(currentPage + 1);
             }
         });
         paginationBox.getChildren().add(nextBtn);
     }
 
+    private StringBinding paginationInfoBinding(int page, int totalPages, int totalResults) {
+        return Bindings.createStringBinding(() -> I18N.paginationInfo(page, totalPages, totalResults),
+                                            I18N.localeProperty());
+    }
+
+    private void goToPage(int page) {
+        pagination.setPage(page);
+        updateDisplay();
+    }
+
     private void copyToClipboard(String text, String styleName) {
         Clipboard clipboard = Clipboard.getSystemClipboard();
         ClipboardContent content = new ClipboardContent();
@@ -595,68 +834,94 @@ public class TextStyleConverterController implements Initializable {
     }
 
     private void loadHistory() {
-        historyList.getChildren().clear();
-        
-        List<HistoryEntry> entries = historyManager.getAllEntries();
+        String query = historySearchField.getText();
+        long searchStart = PerfLog.start();
+        List<HistoryEntry> entries = query == null || query.isBlank()
+            ? historyManager.getEntries()
+            : historyManager.search(query, MAX_HISTORY_SEARCH_RESULTS);
+        PerfLog.log("History search", searchStart);
+        // Search results are not patched by deltas; -1 makes every change trigger a new search
+        historyListVersion = query == null || query.isBlank() ? historyManager.getVersion() : -1;
         
         if (entries.isEmpty()) {
-            VBox emptyMsg = new VBox(10);
-            emptyMsg.setAlignment(Pos.CENTER);
-            emptyMsg.setPadding(new Insets(20));
-            
-            Label icon = new Label("🕒");
-            icon.setStyle("-fx-font-size: 32px;");
-            Label msg = new Label(I18N.get("history.empty"));
-            msg.setStyle("-fx-font-size: 14px; -fx-text-fill: gray;");
-            Label hint = new Label(I18N.get("history.emptyHint"));
-            hint.setStyle("-fx-font-size: 11px; -fx-text-fill: gray;");
-            
-            emptyMsg.getChildren().addAll(icon, msg, hint);
-            historyList.getChildren().add(emptyMsg);
-            return;
+            historyList.setPlaceholder(query == null || query.isBlank()
+                ? createEmptyHistoryMessage()
+                : createNoResultsMessage());
         }
         
-        for (HistoryEntry entry : entries) {
-            VBox entryBox = createHistoryEntryBox(entry);
-            historyList.getChildren().add(entryBox);
-        }
+        long start = PerfLog.start();
+        historyList.getItems().setAll(entries);
+        PerfLog.log("History list updated (" + entries.size() + ")", start);
     }
 
-    private VBox createHistoryEntryBox(HistoryEntry entry) {
-        VBox box = new VBox(8);
-        box.getStyleClass().add("history-entry");
-        box.setPadding(new Insets(10));
-        
-        Label textLabel = new Label(entry.getPreviewText(100));
-        textLabel.setWrapText(true);
-        textLabel.setStyle("-fx-font-family: '" + UNICODE_FONT_FAMILY + "';");
-        
-        Label dateLabel = new Label(I18N.get("history.date", entry.getFormattedDate()));
-        dateLabel.setStyle("-fx-font-size: 10px; -fx-text-fill: gray;");
-        
-        HBox actions = new HBox(5);
-        actions.setAlignment(Pos.CENTER_LEFT);
-        
-        Button loadBtn = new Button("✏️ " + I18N.get("btn.edit"));
-        loadBtn.getStyleClass().add("small-button");
-        loadBtn.setOnAction(e -> loadHistoryItem(entry));
-        
-        Button copyBtn = new Button("📋 " + I18N.get("btn.copy"));
-        copyBtn.getStyleClass().add("small-button");
-        copyBtn.setOnAction(e -> copyToClipboard(entry.getText(), I18N.get("common.text")));
-        
-        Button genBtn = new Button("✨ " + I18N.btnGenerate());
-        genBtn.getStyleClass().add("small-button");
-        genBtn.setOnAction(e -> generateFromHistory(entry));
+    /**
+     * Patches the history list with the changes it does not contain yet.
+     * While a search is shown, the search runs again instead.
+     */
+    private void applyHistoryChanges(List<HistoryChange> changes) {
+        if (historyListVersion < 0) {
+            historySearchCoalescer.trigger();
+            return;
+        }
         
-        actions.getChildren().addAll(loadBtn, copyBtn, genBtn);
-        box.getChildren().addAll(textLabel, dateLabel, actions);
+        ObservableList<HistoryEntry> items = historyList.getItems();
+        for (HistoryChange change : changes) {
+            if (change.getVersion() <= historyListVersion) continue;
+            switch (change.getType()) {
+                case ADDED:
+                    items.addAll(change.getIndex(), change.getEntries());
+                    break;
+                case REMOVED:
+                    items.remove(change.getIndex(), change.getIndex() + change.getCount());
+                    break;
+                case MOVED:
+                    items.remove(change.getIndex());
+                    items.add(change.getToIndex(), change.getEntries().get(0));
+                    break;
+                case CLEARED:
+                    items.clear();
+                    break;
+            }
+            historyListVersion = change.getVersion();
+        }
         
-        return box;
+        if (items.isEmpty()) {
+            historyList.setPlaceholder(createEmptyHistoryMessage());
+        }
+    }
+
+    private VBox createEmptyHistoryMessage() {
+        VBox emptyMsg = new VBox(10);
+        emptyMsg.setAlignment(Pos.CENTER);
+        emptyMsg.setPadding(new Insets(20));
+        
+        Label icon = new Label("🕒");
+        icon.getStyleClass().add("history-empty-icon");
+        Label msg = new Label();
+        msg.textProperty().bind(I18N.binding("history.empty"));
+        msg.getStyleClass().add("history-empty-message");
+        Label hint = new Label();
+        hint.textProperty().bind(I18N.binding("history.emptyHint"));
+        hint.getStyleClass().add("history-empty-hint");
+        
+        emptyMsg.getChildren().addAll(icon, msg, hint);
+        return emptyMsg;
+    }
+
+    private Label createNoResultsMessage() {
+        Label noResults = new Label();
+        noResults.textProperty().bind(I18N.binding("history.noResults"));
+        noResults.getStyleClass().add("history-empty-hint");
+        noResults.setWrapText(true);
+        return noResults;
     }
 
     private void loadHistoryItem(HistoryEntry entry) {
-        textInput.setText(entry.getText());
+        String text = historyText(entry);
+        if (text == null) {
+            return;
+        }
+        textInput.setText(text);
         updateCharCount();
         toggleHistory();
         textInput.requestFocus();
@@ -664,12 +929,35 @@ public class TextStyleConverterController implements Initializable {
     }
 
     private void generateFromHistory(HistoryEntry entry) {
-        textInput.setText(entry.getText());
+        String text = historyText(entry);
+        if (text == null) {
+            return;
+        }
+        textInput.setText(text);
         updateCharCount();
         toggleHistory();
         convertText();
     }
 
+    private void copyFromHistory(HistoryEntry entry) {
+        String text = historyText(entry);
+        if (text != null) {
+            copyToClipboard(text, I18N.get("common.text"));
+        }
+    }
+
+    /**
+     * Returns the full text of a history entry, or shows an error and returns
+     * null when its stored text cannot be read.
+     */
+    private String historyText(HistoryEntry entry) {
+        String text = entry.getText();
+        if (text == null) {
+            showNotification(I18N.get("notif.historyTextUnavailable"), "error");
+        }
+        return text;
+    }
+
     private void clearHistory() {
         if (historyManager.size() == 0) {
             showNotification(I18N.get("notif.historyEmpty"), "info");
@@ -703,19 +991,117 @@ public class TextStyleConverterController implements Initializable {
         fileChooser.setTitle(I18N.get("history.exportTitle"));
         fileChooser.setInitialFileName("historique_text_converter_" + 
                                       java.time.LocalDate.now() + ".txt");
-        fileChooser.getExtensionFilters().add(
-            new FileChooser.ExtensionFilter("Text files", "*.txt"));
+        Map<FileChooser.ExtensionFilter, HistoryExporter.Format> formats = new LinkedHashMap<>();
+        formats.put(new FileChooser.ExtensionFilter("Text files", "*.txt"), HistoryExporter.Format.TEXT);
+        formats.put(new FileChooser.ExtensionFilter("CSV", "*.csv"), HistoryExporter.Format.CSV);
+        formats.put(new FileChooser.ExtensionFilter("JSON Lines", "*.jsonl"), HistoryExporter.Format.JSON_LINES);
+        formats.put(new FileChooser.ExtensionFilter("Text Style history", "*.bin"), HistoryExporter.Format.BINARY);
+        fileChooser.getExtensionFilters().addAll(formats.keySet());
         
         File file = fileChooser.showSaveDialog(exportHistoryBtn.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        
+        // An explicit extension wins over the selected filter
+        HistoryExporter.Format format = HistoryExporter.Format.forFileName(file.getName());
+        if (!file.getName().toLowerCase().endsWith("." + format.getExtension())) {
+            format = formats.getOrDefault(fileChooser.getSelectedExtensionFilter(), HistoryExporter.Format.TEXT);
+        }
         
-        if (file != null) {
-            try (FileWriter writer = new FileWriter(file)) {
-                writer.write(historyManager.exportHistory());
-                showNotification(I18N.get("notif.historyExported"));
-            } catch (IOException e) {
-                showNotification(I18N.get("notif.exportError"), "error");
+        List<HistoryEntry> snapshot = historyManager.getAllEntries();
+        HistoryExporter.Format exportFormat = format;
+        Task<Void> task = new Task<>() {
+            @Override
+            protected Void call() throws Exception {
+                HistoryExporter.export(snapshot, file.toPath(), exportFormat, this::updateProgress);
+                return null;
             }
+        };
+        
+        exportHistoryBtn.setDisable(true);
+        exportHistoryBtn.textProperty().bind(exportProgressText(task));
+        task.setOnSucceeded(e -> {
+            resetExportButton();
+            showNotification(I18N.get("notif.historyExported"));
+        });
+        task.setOnFailed(e -> {
+            resetExportButton();
+            System.err.println("History export failed: " + task.getException());
+            showNotification(I18N.get("notif.exportError"), "error");
+        });
+        
+        Thread thread = new Thread(task, "textstyle-history-export");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    private StringBinding exportProgressText(Task<?> task) {
+        return Bindings.createStringBinding(
+            () -> "📥 " + Math.round(Math.max(0, task.getProgress()) * 100) + "%", task.progressProperty());
+    }
+    
+    private void resetExportButton() {
+        exportHistoryBtn.setDisable(false);
+        exportHistoryBtn.textProperty().bind(exportText);
+    }
+
+    private void exportStyles() {
+        String text = pagination.getSourceText();
+        if (!hasGeneratedResults || text.isEmpty()) {
+            showNotification(I18N.get("notif.enterText"), "error");
+            return;
         }
+        
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle(I18N.get("results.exportTitle"));
+        fileChooser.setInitialFileName("styles_text_converter_" + 
+                                      java.time.LocalDate.now() + ".html");
+        Map<FileChooser.ExtensionFilter, StyleExporter.Format> formats = new LinkedHashMap<>();
+        formats.put(new FileChooser.ExtensionFilter("HTML", "*.html"), StyleExporter.Format.HTML);
+        formats.put(new FileChooser.ExtensionFilter("JSON", "*.json"), StyleExporter.Format.JSON);
+        formats.put(new FileChooser.ExtensionFilter("CSV", "*.csv"), StyleExporter.Format.CSV);
+        fileChooser.getExtensionFilters().addAll(formats.keySet());
+        
+        File file = fileChooser.showSaveDialog(exportStylesBtn.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        
+        StyleExporter.Format format = StyleExporter.Format.forFileName(file.getName());
+        if (format == null) {
+            format = formats.getOrDefault(fileChooser.getSelectedExtensionFilter(), StyleExporter.Format.HTML);
+        }
+        
+        StyleExporter.Format exportFormat = format;
+        Task<Void> task = new Task<>() {
+            @Override
+            protected Void call() throws Exception {
+                styler.exportAll(text, file.toPath(), exportFormat, this::updateProgress);
+                return null;
+            }
+        };
+        
+        exportStylesBtn.setDisable(true);
+        exportStylesBtn.textProperty().bind(exportProgressText(task));
+        task.setOnSucceeded(e -> {
+            resetExportStylesButton();
+            showNotification(I18N.get("notif.stylesExported"));
+        });
+        task.setOnFailed(e -> {
+            resetExportStylesButton();
+            System.err.println("Styles export failed: " + task.getException());
+            showNotification(I18N.get("notif.exportError"), "error");
+        });
+        
+        Thread thread = new Thread(task, "textstyle-styles-export");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    private void resetExportStylesButton() {
+        exportStylesBtn.setDisable(!hasGeneratedResults);
+        exportStylesBtn.textProperty().bind(exportText);
     }
 
     private void showNotification(String message) {
@@ -749,16 +1135,11 @@ public class TextStyleConverterController implements Initializable {
     // ===== TUTORIAL SYSTEM =====
     
     private boolean isTutorialCompleted() {
-        File file = new File(TUTORIAL_PREF_FILE);
-        return file.exists();
+        return AppPreferences.getBoolean(AppPreferences.TUTORIAL_COMPLETED, false);
     }
     
     private void markTutorialCompleted() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(TUTORIAL_PREF_FILE))) {
-            writer.write("completed");
-        } catch (IOException e) {
-            System.err.println("Failed to save tutorial preference: " + e.getMessage());
-        }
+        AppPreferences.set(AppPreferences.TUTORIAL_COMPLETED, true);
     }
     
     private void showHelpMenu() {
@@ -1086,6 +1467,111 @@ public class TextStyleConverterController implements Initializable {
         }
     }
 
+    // ===== EVENT COALESCING =====
+    
+    /**
+     * Collapses bursts of UI events into a single run of an action on the FX thread.
+     * A zero interval runs the action once on the next pulse; a positive interval
+     * runs it after the events have been quiet for that long.
+     */
+    private static class Coalescer {
+        private final Runnable action;
+        private final PauseTransition delay;
+        private boolean pending = false;
+        
+        Coalescer(Duration interval, Runnable action) {
+            this.action = action;
+            if (interval.greaterThan(Duration.ZERO)) {
+                this.delay = new PauseTransition(interval);
+                this.delay.setOnFinished(e -> run());
+            } else {
+                this.delay = null;
+            }
+        }
+        
+        void trigger() {
+            if (delay != null) {
+                pending = true;
+                delay.playFromStart();
+            } else if (!pending) {
+                pending = true;
+                Platform.runLater(this::run);
+            }
+        }
+        
+        void cancel() {
+            pending = false;
+            if (delay != null) {
+                delay.stop();
+            }
+        }
+        
+        private void run() {
+            if (pending) {
+                pending = false;
+                action.run();
+            }
+        }
+    }
+
+    /**
+     * History row built once per cell and refilled as the list scrolls,
+     * so only the visible entries have nodes.
+     */
+    private class HistoryEntryCell extends ListCell<HistoryEntry> {
+        private final VBox box = new VBox(8);
+        private final Label textLabel = new Label();
+        private final Label dateLabel = new Label();
+        private final Button loadBtn = new Button();
+        private final Button copyBtn = new Button();
+        private final Button genBtn = new Button();
+        
+        HistoryEntryCell() {
+            box.getStyleClass().add("history-entry");
+            box.setPadding(new Insets(10));
+            
+            textLabel.setWrapText(true);
+            textLabel.getStyleClass().add("history-text");
+            dateLabel.getStyleClass().add("history-date");
+            
+            loadBtn.getStyleClass().add("small-button");
+            loadBtn.setOnAction(e -> loadHistoryItem(getItem()));
+            copyBtn.getStyleClass().add("small-button");
+            copyBtn.setOnAction(e -> copyFromHistory(getItem()));
+            genBtn.getStyleClass().add("small-button");
+            genBtn.setOnAction(e -> generateFromHistory(getItem()));
+            
+            dateLabel.textProperty().bind(Bindings.createStringBinding(
+                () -> getItem() == null ? "" : I18N.get("history.date", getItem().getFormattedDate()),
+                itemProperty(), I18N.localeProperty()));
+            loadBtn.textProperty().bind(Bindings.concat("✏️ ", I18N.binding("btn.edit")));
+            copyBtn.textProperty().bind(Bindings.concat("📋 ", I18N.binding("btn.copy")));
+            genBtn.textProperty().bind(generateText);
+            
+            HBox actions = new HBox(5, loadBtn, copyBtn, genBtn);
+            actions.setAlignment(Pos.CENTER_LEFT);
+            box.getChildren().addAll(textLabel, dateLabel, actions);
+            
+            // Let the list width drive the cell so the text wraps instead of scrolling
+            setPrefWidth(0);
+        }
+        
+        @Override
+        protected void updateItem(HistoryEntry entry, boolean empty) {
+            super.updateItem(entry, empty);
+            if (empty || entry == null) {
+                setGraphic(null);
+                return;
+            }
+            String preview = entry.getPreviewText(100);
+            textLabel.setText("");
+            whenFontsReady(preview, () -> {
+                if (getItem() == entry) textLabel.setText(preview);
+            });
+            setGraphic(box);
+        }
+    }
+    
     private static class LocaleListCell extends ListCell<Locale> {
         @Override
         protected void updateItem(Locale locale, boolean empty) {
@@ -1,50 +1,209 @@
 package com.textstyle.model;
 
+import com.textstyle.util.Graphemes;
+import com.textstyle.util.I18N;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Represents a single entry in the text conversion history.
+ * New entries get strictly increasing ids, above any id loaded so far.
+ * The timestamp is kept as epoch millis and formatted on demand; formatted
+ * dates are shared through a small per-locale cache.
+ * Large texts can live outside the entry: it then keeps only a preview,
+ * the length and the content key, and loads the text on demand.
+ * An entry holds its id, its timestamp and one reference: the text itself
+ * or a {@link StoredText}.
  */
 public class HistoryEntry {
+    public static final int STORED_PREVIEW_LENGTH = 100;
+
     private final long id;
-    private final String text;
-    private final LocalDateTime timestamp;
+    private final long timestampMillis;
+    private final Object content;
     
-    private static final DateTimeFormatter FORMATTER = 
-        DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final AtomicLong LAST_ID = new AtomicLong();
+
+    public HistoryEntry(long id, String text, long timestampMillis) {
+        this(id, timestampMillis, (Object) text);
+    }
 
     public HistoryEntry(long id, String text, LocalDateTime timestamp) {
+        this(id, text, toMillis(timestamp));
+    }
+
+    /**
+     * Creates an entry whose text is loaded on demand.
+     * @param preview the first STORED_PREVIEW_LENGTH grapheme clusters of the text
+     * @param length the text length in chars
+     * @param contentKey the key the loader reads the text with
+     */
+    public HistoryEntry(long id, long timestampMillis, String preview, int length,
+                        String contentKey, TextLoader loader) {
+        this(id, timestampMillis, new StoredText(preview, length, contentKey, loader));
+    }
+
+    private HistoryEntry(long id, long timestampMillis, Object content) {
         this.id = id;
-        this.text = text;
-        this.timestamp = timestamp;
+        this.timestampMillis = timestampMillis;
+        this.content = content;
+        LAST_ID.accumulateAndGet(id, Math::max);
     }
 
     public HistoryEntry(String text) {
-        this(System.currentTimeMillis(), text, LocalDateTime.now());
+        this(nextId(), text, System.currentTimeMillis());
+    }
+
+    /**
+     * Creates a new entry whose text is loaded on demand.
+     */
+    public static HistoryEntry stored(String preview, int length, String contentKey, TextLoader loader) {
+        return new HistoryEntry(nextId(), System.currentTimeMillis(), preview, length, contentKey, loader);
+    }
+
+    /**
+     * Returns the current time in millis, or the last id + 1 when that is not larger.
+     */
+    private static long nextId() {
+        return LAST_ID.updateAndGet(last -> Math.max(last + 1, System.currentTimeMillis()));
+    }
+
+    private static long toMillis(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
 
     public long getId() {
         return id;
     }
 
+    /**
+     * Returns the full text, loading it first when it is stored outside the entry.
+     * Returns null when the stored text cannot be read.
+     */
     public String getText() {
-        return text;
+        if (content instanceof String) {
+            return (String) content;
+        }
+        StoredText stored = (StoredText) content;
+        return stored.loader.load(stored.contentKey);
+    }
+
+    /**
+     * Returns true when the text is stored outside the entry.
+     */
+    public boolean isStored() {
+        return content instanceof StoredText;
+    }
+
+    /**
+     * Returns the content key of a stored text, or null.
+     */
+    public String getContentKey() {
+        return isStored() ? ((StoredText) content).contentKey : null;
+    }
+
+    /**
+     * Returns the preview kept for a stored text, or null.
+     */
+    public String getStoredPreview() {
+        return isStored() ? ((StoredText) content).preview : null;
+    }
+
+    /**
+     * Returns the text length in chars, without loading a stored text.
+     */
+    public int getLength() {
+        return isStored() ? ((StoredText) content).length : ((String) content).length();
     }
 
+    /**
+     * Returns the creation time in epoch millis.
+     */
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    /**
+     * Returns the creation time in the system time zone, as a new object.
+     */
     public LocalDateTime getTimestamp() {
-        return timestamp;
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestampMillis), ZoneId.systemDefault());
     }
 
+    /**
+     * Returns the date in the pattern of the current locale ({@code history.dateFormat}).
+     */
     public String getFormattedDate() {
-        return timestamp.format(FORMATTER);
+        return DateCache.format(timestampMillis);
     }
 
+    /**
+     * Returns the text cut to maxLength grapheme clusters, with "..." when cut.
+     */
     public String getPreviewText(int maxLength) {
-        if (text.length() <= maxLength) {
-            return text;
+        if (content instanceof String) {
+            return Graphemes.ellipsize((String) content, maxLength);
+        }
+        return Graphemes.prefix(((StoredText) content).preview, maxLength) + "...";
+    }
+
+    /**
+     * Loads a stored text by its content key.
+     */
+    @FunctionalInterface
+    public interface TextLoader {
+        String load(String contentKey);
+    }
+
+    /**
+     * Preview, length and key of a text kept outside the entry.
+     */
+    private static final class StoredText {
+        private final String preview;
+        private final int length;
+        private final String contentKey;
+        private final TextLoader loader;
+
+        StoredText(String preview, int length, String contentKey, TextLoader loader) {
+            this.preview = preview;
+            this.length = length;
+            this.contentKey = contentKey;
+            this.loader = loader;
+        }
+    }
+
+    /**
+     * Formatted dates by minute, for the current locale's pattern.
+     * Cleared when the locale changes; the least recently used minutes are dropped.
+     */
+    private static final class DateCache {
+        private static final int MAX_SIZE = 1024;
+        private static final Map<Long, String> DATES = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                return size() > MAX_SIZE;
+            }
+        };
+        private static Locale locale;
+        private static DateTimeFormatter formatter;
+
+        static synchronized String format(long millis) {
+            Locale current = I18N.getCurrentLocale();
+            if (!current.equals(locale)) {
+                locale = current;
+                formatter = DateTimeFormatter.ofPattern(I18N.get("history.dateFormat"), current)
+                                             .withZone(ZoneId.systemDefault());
+                DATES.clear();
+            }
+            return DATES.computeIfAbsent(Math.floorDiv(millis, 60_000L),
+                                         minute -> formatter.format(Instant.ofEpochMilli(minute * 60_000L)));
         }
-        return text.substring(0, maxLength) + "...";
     }
 
     @Override
@@ -0,0 +1,201 @@
+package com.textstyle.model;
+
+import com.textstyle.util.Graphemes;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Pagination state for the style results, independent of the UI.
+ * Holds the filtered styles, the current page and the card previews of the
+ * current source text. Previews of any page can be converted ahead of time on
+ * a background executor; the cache is bounded to a few pages.
+ * All methods except the background conversion run on the callback thread.
+ */
+public class ResultsPagination {
+    public static final int MAX_PREVIEW_LENGTH = 50;
+    private static final int CACHED_PAGES = 3;
+
+    private final Executor background;
+    private final Executor callbacks;
+
+    private List<TextStyle> items = Collections.emptyList();
+    private int pageSize = 12;
+    private int currentPage = 1;
+    private String sourceText = "";
+    private Map<String, String> previews = newPreviewCache();
+    private volatile long generation = 0;
+
+    /**
+     * Creates a pagination model.
+     * @param background executor running preview conversions
+     * @param callbacks executor receiving conversion results (the UI thread)
+     */
+    public ResultsPagination(Executor background, Executor callbacks) {
+        this.background = background;
+        this.callbacks = callbacks;
+    }
+
+    public List<TextStyle> getItems() {
+        return items;
+    }
+
+    /**
+     * Replaces the styles to paginate and returns to the first page.
+     */
+    public void setItems(List<TextStyle> items) {
+        this.items = items;
+        this.currentPage = 1;
+        this.generation++;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+        this.previews = newPreviewCache(previews);
+        this.generation++;
+        setPage(currentPage);
+    }
+
+    public int getPage() {
+        return currentPage;
+    }
+
+    /**
+     * Moves to the given page, clamped to the valid range.
+     */
+    public void setPage(int page) {
+        currentPage = Math.max(1, Math.min(page, Math.max(1, getTotalPages())));
+    }
+
+    public int getTotalPages() {
+        return (int) Math.ceil((double) items.size() / pageSize);
+    }
+
+    public boolean hasNextPage() {
+        return currentPage < getTotalPages();
+    }
+
+    /**
+     * Returns the styles shown on the given page.
+     */
+    public List<TextStyle> getPageItems(int page) {
+        int startIndex = Math.min((page - 1) * pageSize, items.size());
+        int endIndex = Math.min(startIndex + pageSize, items.size());
+        return items.subList(startIndex, endIndex);
+    }
+
+    public String getSourceText() {
+        return sourceText;
+    }
+
+    /**
+     * Sets the text the previews are converted from.
+     * A different text drops the cached previews and cancels pending conversions.
+     */
+    public void setSourceText(String text) {
+        if (!sourceText.equals(text)) {
+            sourceText = text;
+            previews = newPreviewCache();
+            generation++;
+        }
+    }
+
+    /**
+     * Returns a token that changes whenever the items, page size or source text change.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Cancels pending preview conversions.
+     */
+    public void cancelPending() {
+        generation++;
+    }
+
+    /**
+     * Returns true when every preview of the page is cached.
+     */
+    public boolean isPageReady(int page) {
+        for (TextStyle style : getPageItems(page)) {
+            if (!previews.containsKey(style.getId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the preview of a style, converting it now if it is not cached.
+     */
+    public String getPreview(TextStyle style) {
+        return previews.computeIfAbsent(style.getId(), id -> previewOf(style, sourceText));
+    }
+
+    /**
+     * Converts the missing previews of a page on the background executor.
+     * The future completes on the callback executor with true once the previews
+     * are cached, or false when the run was superseded.
+     */
+    public CompletableFuture<Boolean> loadPage(int page) {
+        long runGeneration = generation;
+        String text = sourceText;
+        List<TextStyle> missing = new ArrayList<>();
+        for (TextStyle style : getPageItems(page)) {
+            if (!previews.containsKey(style.getId())) {
+                missing.add(style);
+            }
+        }
+
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        if (missing.isEmpty()) {
+            result.complete(true);
+            return result;
+        }
+
+        background.execute(() -> {
+            Map<String, String> converted = new HashMap<>();
+            for (TextStyle style : missing) {
+                if (generation != runGeneration) break;
+                converted.put(style.getId(), previewOf(style, text));
+            }
+            callbacks.execute(() -> {
+                boolean current = generation == runGeneration;
+                if (current) {
+                    previews.putAll(converted);
+                }
+                result.complete(current);
+            });
+        });
+        return result;
+    }
+
+    /**
+     * Builds a card preview of MAX_PREVIEW_LENGTH grapheme clusters.
+     * One extra cluster is converted to know whether "..." is needed.
+     */
+    private static String previewOf(TextStyle style, String text) {
+        return Graphemes.ellipsize(style.convertPrefix(text, MAX_PREVIEW_LENGTH + 1), MAX_PREVIEW_LENGTH);
+    }
+
+    private Map<String, String> newPreviewCache() {
+        return newPreviewCache(Collections.emptyMap());
+    }
+
+    private Map<String, String> newPreviewCache(Map<String, String> initial) {
+        int maxEntries = CACHED_PAGES * pageSize;
+        Map<String, String> cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        cache.putAll(initial);
+        return cache;
+    }
+}
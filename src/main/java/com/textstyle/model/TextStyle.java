@@ -1,6 +1,8 @@
 package com.textstyle.model;
 
+import com.textstyle.util.Graphemes;
 import com.textstyle.util.I18N;
+import java.io.IOException;
 import java.util.Map;
 import java.util.HashMap;
 
@@ -36,6 +38,30 @@ public class TextStyle {
         return converter.convert(text);
     }
 
+    /**
+     * Appends the converted text to out as it is produced.
+     */
+    public void convertTo(String text, Appendable out) throws IOException {
+        converter.convertTo(text, out);
+    }
+
+    /**
+     * Returns the first maxGraphemes grapheme clusters of the converted text.
+     * Only the part of the input needed for that prefix is converted.
+     */
+    public String convertPrefix(String text, int maxGraphemes) {
+        return converter.convertPrefix(text, maxGraphemes);
+    }
+
+    /**
+     * Returns true when the style converts each character on its own through
+     * its character map, so the conversion of a text is the concatenation of
+     * the conversions of its characters.
+     */
+    public boolean isCharacterMapping() {
+        return !charMap.isEmpty();
+    }
+
     // Getters with I18N support
     public String getId() { 
         return id; 
@@ -67,6 +93,77 @@ public class TextStyle {
     @FunctionalInterface
     public interface StyleConverter {
         String convert(String text);
+
+        /**
+         * Appends the converted text to out. The default builds the whole
+         * conversion first; character mappings write it as they go.
+         */
+        default void convertTo(String text, Appendable out) throws IOException {
+            out.append(convert(text));
+        }
+
+        /**
+         * Returns the first maxGraphemes clusters of the converted text.
+         * The default converts only a leading part of the input, which suits
+         * converters whose output for a prefix is a prefix of the full output.
+         */
+        default String convertPrefix(String text, int maxGraphemes) {
+            return convertHead(text, maxGraphemes, this);
+        }
+
+        /**
+         * Converts a leading part of the text with headConverter, grown until the
+         * output holds more than maxGraphemes clusters, and cuts the output on a
+         * cluster boundary.
+         */
+        static String convertHead(String text, int maxGraphemes, StyleConverter headConverter) {
+            if (maxGraphemes <= 0) {
+                return "";
+            }
+            int take = maxGraphemes + 1;
+            while (true) {
+                String head = Graphemes.prefix(text, take);
+                String converted = headConverter.convert(head);
+                int end = Graphemes.prefixLength(converted, maxGraphemes);
+                if (end < converted.length() || head.length() == text.length()) {
+                    return converted.substring(0, end);
+                }
+                take *= 2;
+            }
+        }
+
+        /**
+         * Wraps a converter whose output starts with the end of the input, such as
+         * mirrored text; prefixes are then converted from the tail of the input.
+         */
+        static StyleConverter reversing(StyleConverter converter) {
+            return new StyleConverter() {
+                @Override
+                public String convert(String text) {
+                    return converter.convert(text);
+                }
+
+                @Override
+                public String convertPrefix(String text, int maxGraphemes) {
+                    if (maxGraphemes <= 0) {
+                        return "";
+                    }
+                    int take = maxGraphemes + 1;
+                    while (true) {
+                        int start = text.length();
+                        for (int count = 0; start > 0 && count < take; count++) {
+                            start -= Character.charCount(text.codePointBefore(start));
+                        }
+                        String converted = converter.convert(text.substring(start));
+                        int end = Graphemes.prefixLength(converted, maxGraphemes);
+                        if (end < converted.length() || start == 0) {
+                            return converted.substring(0, end);
+                        }
+                        take *= 2;
+                    }
+                }
+            };
+        }
     }
 
     /**
@@ -88,5 +185,18 @@ public class TextStyle {
             }
             return result.toString();
         }
+
+        @Override
+        public void convertTo(String text, Appendable out) throws IOException {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                String converted = map.get(c);
+                if (converted != null) {
+                    out.append(converted);
+                } else {
+                    out.append(c);
+                }
+            }
+        }
     }
 }
@@ -0,0 +1,160 @@
+package com.textstyle.util;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Application settings kept in one properties file ({@code ~/.textstyle_preferences.properties}).
+ * The file is read once, on first use. Changing a value only queues a save on
+ * a background thread, and only when the value actually differs; saves write a
+ * temp file and rename it atomically, and a burst of changes is saved once.
+ * Settings from the files of earlier versions (the locale file and the
+ * tutorial flag file) are read when the properties file does not exist yet.
+ */
+public final class AppPreferences {
+    public static final String LOCALE = "locale";
+    public static final String TUTORIAL_COMPLETED = "tutorial.completed";
+    public static final String RESULTS_PER_PAGE = "results.perPage";
+    public static final String AUTO_PREVIEW = "input.autoPreview";
+
+    private static final Path FILE = Paths.get(System.getProperty("user.home"), ".textstyle_preferences.properties");
+    private static final Path LEGACY_LOCALE_FILE = Paths.get(System.getProperty("user.home"), ".textstyle_preferences.txt");
+    private static final Path LEGACY_TUTORIAL_FILE = Paths.get(System.getProperty("user.home"), ".textstyle_tutorial_done.txt");
+
+    private static final Object lock = new Object();
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "textstyle-preferences");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static Properties values;
+    private static boolean savePending = false;
+    private static Future<?> lastSave;
+
+    private AppPreferences() {
+    }
+
+    /**
+     * Reads the settings file if it has not been read yet.
+     * Called early from a background thread so the UI never waits on it.
+     */
+    public static void load() {
+        synchronized (lock) {
+            if (values == null) {
+                values = read();
+            }
+        }
+    }
+
+    public static String getString(String key, String defaultValue) {
+        synchronized (lock) {
+            load();
+            return values.getProperty(key, defaultValue);
+        }
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * Changes a setting; the file is saved in the background if the value changed.
+     */
+    public static void set(String key, Object value) {
+        String text = String.valueOf(value);
+        synchronized (lock) {
+            load();
+            if (text.equals(values.getProperty(key))) {
+                return;
+            }
+            values.setProperty(key, text);
+            if (savePending) {
+                return;
+            }
+            savePending = true;
+            lastSave = writer.submit(AppPreferences::save);
+        }
+    }
+
+    /**
+     * Waits for a queued save to finish. Called when the application closes.
+     */
+    public static void flush() {
+        Future<?> save;
+        synchronized (lock) {
+            save = lastSave;
+        }
+        if (save == null) {
+            return;
+        }
+        try {
+            save.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            System.err.println("Failed to save preferences: " + e.getMessage());
+        }
+    }
+
+    private static void save() {
+        Properties snapshot = new Properties();
+        synchronized (lock) {
+            savePending = false;
+            snapshot.putAll(values);
+        }
+        Path temp = FILE.resolveSibling(FILE.getFileName() + ".tmp");
+        try {
+            try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                snapshot.store(out, "Text Style Converter preferences");
+            }
+            Files.move(temp, FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Failed to save preferences: " + e.getMessage());
+        }
+    }
+
+    private static Properties read() {
+        Properties properties = new Properties();
+        if (Files.exists(FILE)) {
+            try (Reader in = Files.newBufferedReader(FILE, StandardCharsets.UTF_8)) {
+                properties.load(in);
+            } catch (IOException e) {
+                System.err.println("Failed to load preferences: " + e.getMessage());
+            }
+            return properties;
+        }
+
+        if (Files.exists(LEGACY_LOCALE_FILE)) {
+            try (BufferedReader reader = Files.newBufferedReader(LEGACY_LOCALE_FILE, StandardCharsets.UTF_8)) {
+                String languageCode = reader.readLine();
+                if (languageCode != null && !languageCode.trim().isEmpty()) {
+                    properties.setProperty(LOCALE, languageCode.trim());
+                }
+            } catch (IOException e) {
+                System.err.println("Failed to load locale preference: " + e.getMessage());
+            }
+        }
+        if (Files.exists(LEGACY_TUTORIAL_FILE)) {
+            properties.setProperty(TUTORIAL_COMPLETED, "true");
+        }
+        return properties;
+    }
+}
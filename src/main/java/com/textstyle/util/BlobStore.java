@@ -0,0 +1,131 @@
+package com.textstyle.util;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Content-addressed store for large history texts.
+ * Each text is saved once in a file named by the SHA-256 of its content.
+ * The first byte of a file tells whether the UTF-8 payload is Deflate-compressed.
+ * Texts are staged in memory first and written by the history writer thread;
+ * reads see staged texts until their file exists.
+ */
+public class BlobStore {
+    private static final byte RAW = 0;
+    private static final byte DEFLATED = 1;
+
+    private final Path directory;
+    private final boolean compress;
+    private final Map<String, String> staged = new ConcurrentHashMap<>();
+
+    public BlobStore(Path directory, boolean compress) {
+        this.directory = directory;
+        this.compress = compress;
+    }
+
+    /**
+     * Returns the hex SHA-256 of the text's UTF-8 bytes.
+     */
+    public static String keyOf(String text) {
+        try {
+            return toHex(MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Keeps the text in memory until {@link #write(String)} saves it.
+     */
+    public void stage(String key, String text) {
+        staged.put(key, text);
+    }
+
+    /**
+     * Saves a staged text to its file, unless the file already exists.
+     */
+    public void write(String key) throws IOException {
+        String text = staged.get(key);
+        if (text == null) {
+            return;
+        }
+        Path target = directory.resolve(key);
+        if (!Files.exists(target)) {
+            Files.createDirectories(directory);
+            Path temp = directory.resolve(key + ".tmp");
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                out.write(compress ? DEFLATED : RAW);
+                if (compress) {
+                    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+                    try {
+                        DeflaterOutputStream deflated = new DeflaterOutputStream(out, deflater);
+                        deflated.write(bytes);
+                        deflated.finish();
+                    } finally {
+                        deflater.end();
+                    }
+                } else {
+                    out.write(bytes);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        staged.remove(key, text);
+    }
+
+    /**
+     * Reads a text by key, from memory while it is staged.
+     * Returns null when the text cannot be read.
+     */
+    public String read(String key) {
+        String text = staged.get(key);
+        if (text != null) {
+            return text;
+        }
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(directory.resolve(key)))) {
+            int format = in.read();
+            try (InputStream payload = format == DEFLATED ? new InflaterInputStream(in) : in) {
+                return new String(payload.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to read history text " + key + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Deletes the saved texts whose key is not in the given set.
+     */
+    public void retainOnly(Set<String> keys) {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (!keys.contains(name) && !staged.containsKey(name)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to clean history texts: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.textstyle.util;
+
+import javafx.scene.text.Font;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Registers the fonts bundled in {@code /polices} with JavaFX on demand.
+ * Only the interface font is registered at startup; another font is registered
+ * the first time a text about to be displayed has a code point that no
+ * registered font covers and that font does. Font coverage comes from the
+ * file computed at build time (see {@link FontCoverage}), so no font file is
+ * opened just to find out. Without that file every font is registered at once.
+ * Registration runs on a background thread ({@link #loadFontsFor(CharSequence)});
+ * the FX thread only checks coverage, which never waits on a font being loaded.
+ * The same coverage tells whether a text can be displayed at all with the
+ * bundled fonts, without rendering it.
+ */
+public final class BundledFonts {
+    private static final String DIRECTORY = "/polices/";
+
+    // In order of preference: the first font covering a code point is registered
+    private static final List<String> FILES = Arrays.asList(
+        "NotoSans-Regular.ttf",
+        "NotoSansMath-Regular.ttf",
+        "NotoSansSymbols-Regular.ttf",
+        "NotoSansSymbols2-Regular.ttf",
+        "STIXTwoMath-Regular.ttf"
+    );
+
+    private static final CompletableFuture<Void> READY = CompletableFuture.completedFuture(null);
+
+    private static final FontCoverage[] coverage = new FontCoverage[FILES.size()];
+    private static final boolean[] registered = new boolean[FILES.size()];
+    private static final Object registration = new Object();
+    private static final ExecutorService registrar = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "textstyle-fonts");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static FontCoverage anyFont;
+    private static int registeredCount = 0;
+    private static boolean coverageLoaded = false;
+
+    private BundledFonts() {
+    }
+
+    /**
+     * Registers the interface font and reads the coverage file.
+     * Called once at startup, off the FX thread.
+     */
+    public static void loadBaseFont() {
+        boolean haveCoverage;
+        synchronized (BundledFonts.class) {
+            loadCoverage();
+            haveCoverage = anyFont != null;
+        }
+        if (haveCoverage) {
+            register(0);
+        } else {
+            for (int i = 0; i < FILES.size(); i++) {
+                register(i);
+            }
+        }
+    }
+
+    /**
+     * Registers the bundled fonts needed to display the text, on the calling thread.
+     * Returns quickly when every code point is covered by a registered font.
+     */
+    public static void ensureFontsFor(CharSequence text) {
+        for (int font : missingFonts(text)) {
+            register(font);
+        }
+    }
+
+    /**
+     * Registers the bundled fonts needed to display the text on a background
+     * thread. The returned future completes once they are registered; it is
+     * already complete when no font is missing, so the text can be shown at once.
+     */
+    public static CompletableFuture<Void> loadFontsFor(CharSequence text) {
+        if (missingFonts(text).isEmpty()) {
+            return READY;
+        }
+        String snapshot = text.toString();
+        return CompletableFuture.runAsync(() -> ensureFontsFor(snapshot), registrar);
+    }
+
+    /**
+     * Scans the text and registers the fonts it needs, both on the background
+     * thread, for texts too long to scan on the FX thread (the input being edited).
+     * The returned future tells whether a font was registered.
+     */
+    public static CompletableFuture<Boolean> loadFontsInBackground(CharSequence text) {
+        String snapshot = text.toString();
+        return CompletableFuture.supplyAsync(() -> {
+            List<Integer> missing = missingFonts(snapshot);
+            for (int font : missing) {
+                register(font);
+            }
+            return !missing.isEmpty();
+        }, registrar);
+    }
+
+    /**
+     * Returns the fonts to register for the text, in the order of {@link #FILES}.
+     * The text is scanned against a copy of the registration state, outside the
+     * lock, so a long scan never blocks coverage checks on other threads.
+     */
+    private static List<Integer> missingFonts(CharSequence text) {
+        List<Integer> missing = new ArrayList<>();
+        boolean[] available;
+        synchronized (BundledFonts.class) {
+            if (text == null || registeredCount == FILES.size()) {
+                return missing;
+            }
+            loadCoverage();
+            available = registered.clone();
+        }
+        if (anyFont == null) {
+            for (int font = 0; font < FILES.size(); font++) {
+                if (!available[font]) missing.add(font);
+            }
+            return missing;
+        }
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = Character.codePointAt(text, i);
+            i += Character.charCount(codePoint);
+            if (codePoint >= 0x80 && !isCovered(codePoint, available)) {
+                for (int font = 0; font < FILES.size(); font++) {
+                    if (!available[font] && coverage[font] != null && coverage[font].contains(codePoint)) {
+                        available[font] = true;
+                        missing.add(font);
+                        break;
+                    }
+                }
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Returns true when some bundled font has a glyph for every visible code
+     * point of the text. Controls, format characters and variation selectors
+     * need no glyph. Returns true when the coverage file is missing.
+     */
+    public static synchronized boolean canRender(CharSequence text) {
+        loadCoverage();
+        if (anyFont == null || text == null) {
+            return true;
+        }
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = Character.codePointAt(text, i);
+            i += Character.charCount(codePoint);
+            if (!anyFont.contains(codePoint) && needsGlyph(codePoint)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean needsGlyph(int codePoint) {
+        switch (Character.getType(codePoint)) {
+            case Character.CONTROL:
+            case Character.FORMAT:
+            case Character.LINE_SEPARATOR:
+            case Character.PARAGRAPH_SEPARATOR:
+                return false;
+            default:
+                return !(codePoint >= 0xFE00 && codePoint <= 0xFE0F)
+                    && !(codePoint >= 0xE0100 && codePoint <= 0xE01EF);
+        }
+    }
+
+    private static boolean isCovered(int codePoint, boolean[] available) {
+        for (int font = 0; font < FILES.size(); font++) {
+            if (available[font] && coverage[font] != null && coverage[font].contains(codePoint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void loadCoverage() {
+        if (coverageLoaded) {
+            return;
+        }
+        coverageLoaded = true;
+        try (InputStream in = BundledFonts.class.getResourceAsStream(FontCoverage.RESOURCE)) {
+            if (in == null) {
+                throw new IOException("resource not found");
+            }
+            Map<String, FontCoverage> fonts = FontCoverage.read(in);
+            for (int i = 0; i < FILES.size(); i++) {
+                coverage[i] = fonts.get(FILES.get(i));
+            }
+            anyFont = FontCoverage.union(fonts.values());
+        } catch (IOException e) {
+            System.out.println("Font coverage unavailable (" + e.getMessage() + "), loading all fonts");
+        }
+    }
+
+    /**
+     * Loads a font outside the coverage lock, so coverage checks never wait on it;
+     * the registration lock only keeps two threads from loading the same font.
+     */
+    private static void register(int font) {
+        synchronized (registration) {
+            synchronized (BundledFonts.class) {
+                if (registered[font]) {
+                    return;
+                }
+            }
+            load(font);
+            synchronized (BundledFonts.class) {
+                registered[font] = true;
+                registeredCount++;
+            }
+        }
+    }
+
+    private static void load(int font) {
+        String fontPath = DIRECTORY + FILES.get(font);
+        long start = PerfLog.start();
+        try (InputStream fontStream = BundledFonts.class.getResourceAsStream(fontPath)) {
+            if (fontStream != null) {
+                Font.loadFont(fontStream, 14);
+                System.out.println("Font loaded: " + fontPath);
+            } else {
+                System.out.println("Font not found: " + fontPath +
+                                 " (using system fonts)");
+            }
+        } catch (IOException e) {
+            System.err.println("Font loading error: " + fontPath);
+        }
+        PerfLog.log("Font registration " + FILES.get(font), start);
+    }
+}
@@ -0,0 +1,89 @@
+package com.textstyle.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Escapes characters for an export file format on their way to the
+ * underlying writer; shared by {@link HistoryExporter} and {@link StyleExporter}.
+ * The caller writes the surrounding quotes: JSON strings and CSV fields are
+ * always quoted, so CSV only doubles quotes.
+ */
+final class EscapingWriter extends Writer {
+
+    /**
+     * The syntax whose special characters are escaped.
+     */
+    enum Syntax {
+        JSON, CSV, HTML
+    }
+
+    private final Writer out;
+    private final Syntax syntax;
+
+    EscapingWriter(Writer out, Syntax syntax) {
+        this.out = out;
+        this.syntax = syntax;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        switch (syntax) {
+            case JSON:
+                switch (c) {
+                    case '"': out.write("\\\""); return;
+                    case '\\': out.write("\\\\"); return;
+                    case '\n': out.write("\\n"); return;
+                    case '\r': out.write("\\r"); return;
+                    case '\t': out.write("\\t"); return;
+                    default:
+                        if (c < 0x20) {
+                            out.write(String.format("\\u%04x", c));
+                            return;
+                        }
+                }
+                break;
+            case CSV:
+                if (c == '"') {
+                    out.write("\"\"");
+                    return;
+                }
+                break;
+            case HTML:
+                switch (c) {
+                    case '&': out.write("&amp;"); return;
+                    case '<': out.write("&lt;"); return;
+                    case '>': out.write("&gt;"); return;
+                    case '"': out.write("&quot;"); return;
+                    case '\n': out.write("<br>"); return;
+                    default: break;
+                }
+                break;
+        }
+        out.write(c);
+    }
+
+    @Override
+    public void write(char[] chars, int offset, int length) throws IOException {
+        for (int i = offset; i < offset + length; i++) {
+            write(chars[i]);
+        }
+    }
+
+    @Override
+    public void write(String text, int offset, int length) throws IOException {
+        for (int i = offset; i < offset + length; i++) {
+            write(text.charAt(i));
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
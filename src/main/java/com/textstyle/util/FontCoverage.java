@@ -0,0 +1,298 @@
+package com.textstyle.util;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * The code points a font has glyphs for, read from the cmap table of a
+ * TrueType/OpenType file and kept as a sparse bitset: one 256-bit page per
+ * block of 256 code points that has at least one glyph.
+ * The coverage of the bundled fonts is computed at build time by {@link #main}
+ * and saved next to the fonts, so the application knows which font a text needs
+ * without opening any font file.
+ */
+public final class FontCoverage {
+    /** Coverage file of the bundled fonts, as a resource path. */
+    public static final String RESOURCE = "/polices/coverage.bin";
+
+    private static final int MAGIC = 0x54534643; // "TSFC"
+    private static final int VERSION = 1;
+    private static final int PAGE_WORDS = 4;
+    private static final int MAX_CODE_POINT = Character.MAX_CODE_POINT;
+
+    private final long[][] pages;
+
+    private FontCoverage(long[][] pages) {
+        this.pages = pages;
+    }
+
+    /**
+     * Returns true when the font has a glyph for the code point.
+     */
+    public boolean contains(int codePoint) {
+        int page = codePoint >>> 8;
+        if (page >= pages.length || pages[page] == null) {
+            return false;
+        }
+        return (pages[page][(codePoint >>> 6) & 3] & (1L << codePoint)) != 0;
+    }
+
+    /**
+     * Returns the code points covered by at least one of the fonts.
+     */
+    public static FontCoverage union(Collection<FontCoverage> fonts) {
+        int length = 0;
+        for (FontCoverage font : fonts) {
+            length = Math.max(length, font.pages.length);
+        }
+        long[][] pages = new long[length][];
+        for (FontCoverage font : fonts) {
+            for (int i = 0; i < font.pages.length; i++) {
+                if (font.pages[i] == null) continue;
+                if (pages[i] == null) {
+                    pages[i] = new long[PAGE_WORDS];
+                }
+                for (int w = 0; w < PAGE_WORDS; w++) {
+                    pages[i][w] |= font.pages[i][w];
+                }
+            }
+        }
+        return new FontCoverage(pages);
+    }
+
+    /**
+     * Returns the number of code points covered.
+     */
+    public int size() {
+        int count = 0;
+        for (long[] page : pages) {
+            if (page != null) {
+                for (long word : page) {
+                    count += Long.bitCount(word);
+                }
+            }
+        }
+        return count;
+    }
+
+    // ===== CMAP PARSING =====
+
+    /**
+     * Reads the coverage of a font file from its Unicode cmap subtable
+     * (format 12 when present, otherwise format 4).
+     */
+    public static FontCoverage parse(byte[] font) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(font);
+        int cmap = findTable(data, "cmap");
+        if (cmap < 0) {
+            throw new IOException("No cmap table");
+        }
+
+        int subtableCount = data.getShort(cmap + 2) & 0xFFFF;
+        int format4 = -1;
+        int format12 = -1;
+        for (int i = 0; i < subtableCount; i++) {
+            int record = cmap + 4 + i * 8;
+            int platform = data.getShort(record) & 0xFFFF;
+            int encoding = data.getShort(record + 2) & 0xFFFF;
+            int offset = cmap + data.getInt(record + 4);
+            boolean unicode = platform == 0 || (platform == 3 && (encoding == 1 || encoding == 10));
+            if (!unicode) {
+                continue;
+            }
+            int format = data.getShort(offset) & 0xFFFF;
+            if (format == 12 && format12 < 0) {
+                format12 = offset;
+            } else if (format == 4 && format4 < 0) {
+                format4 = offset;
+            }
+        }
+
+        Builder builder = new Builder();
+        if (format12 >= 0) {
+            readFormat12(data, format12, builder);
+        } else if (format4 >= 0) {
+            readFormat4(data, format4, builder);
+        } else {
+            throw new IOException("No Unicode cmap subtable");
+        }
+        return builder.build();
+    }
+
+    private static int findTable(ByteBuffer data, String tag) {
+        int tableCount = data.getShort(4) & 0xFFFF;
+        int wanted = ((tag.charAt(0) << 24) | (tag.charAt(1) << 16) | (tag.charAt(2) << 8) | tag.charAt(3));
+        for (int i = 0; i < tableCount; i++) {
+            int record = 12 + i * 16;
+            if (data.getInt(record) == wanted) {
+                return data.getInt(record + 8);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Segment mapping to delta values (BMP only).
+     */
+    private static void readFormat4(ByteBuffer data, int offset, Builder builder) {
+        int segCount = (data.getShort(offset + 6) & 0xFFFF) / 2;
+        int endCodes = offset + 14;
+        int startCodes = endCodes + segCount * 2 + 2;
+        int idDeltas = startCodes + segCount * 2;
+        int idRangeOffsets = idDeltas + segCount * 2;
+
+        for (int i = 0; i < segCount; i++) {
+            int end = data.getShort(endCodes + i * 2) & 0xFFFF;
+            int start = data.getShort(startCodes + i * 2) & 0xFFFF;
+            int delta = data.getShort(idDeltas + i * 2);
+            int rangeOffsetPosition = idRangeOffsets + i * 2;
+            int rangeOffset = data.getShort(rangeOffsetPosition) & 0xFFFF;
+
+            for (int c = start; c <= end && c != 0xFFFF; c++) {
+                int glyph;
+                if (rangeOffset == 0) {
+                    glyph = (c + delta) & 0xFFFF;
+                } else {
+                    glyph = data.getShort(rangeOffsetPosition + rangeOffset + (c - start) * 2) & 0xFFFF;
+                    if (glyph != 0) {
+                        glyph = (glyph + delta) & 0xFFFF;
+                    }
+                }
+                if (glyph != 0) {
+                    builder.add(c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Segmented coverage (full Unicode range).
+     */
+    private static void readFormat12(ByteBuffer data, int offset, Builder builder) {
+        long groupCount = data.getInt(offset + 12) & 0xFFFFFFFFL;
+        for (long i = 0; i < groupCount; i++) {
+            int group = (int) (offset + 16 + i * 12);
+            long start = data.getInt(group) & 0xFFFFFFFFL;
+            long end = Math.min(data.getInt(group + 4) & 0xFFFFFFFFL, MAX_CODE_POINT);
+            long startGlyph = data.getInt(group + 8) & 0xFFFFFFFFL;
+            for (long c = start; c <= end; c++) {
+                // Glyph 0 is .notdef: the character is not really covered
+                if (startGlyph + (c - start) != 0) {
+                    builder.add((int) c);
+                }
+            }
+        }
+    }
+
+    private static final class Builder {
+        private final long[][] pages = new long[(MAX_CODE_POINT >>> 8) + 1][];
+
+        void add(int codePoint) {
+            int page = codePoint >>> 8;
+            if (pages[page] == null) {
+                pages[page] = new long[PAGE_WORDS];
+            }
+            pages[page][(codePoint >>> 6) & 3] |= 1L << codePoint;
+        }
+
+        FontCoverage build() {
+            int length = pages.length;
+            while (length > 0 && pages[length - 1] == null) {
+                length--;
+            }
+            return new FontCoverage(Arrays.copyOf(pages, length));
+        }
+    }
+
+    // ===== COVERAGE FILE =====
+
+    /**
+     * Writes the coverage of several fonts, keyed by font file name.
+     */
+    public static void write(Map<String, FontCoverage> fonts, OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(fonts.size());
+        for (Map.Entry<String, FontCoverage> font : fonts.entrySet()) {
+            long[][] pages = font.getValue().pages;
+            int pageCount = 0;
+            for (long[] page : pages) {
+                if (page != null) pageCount++;
+            }
+            out.writeUTF(font.getKey());
+            out.writeInt(pageCount);
+            for (int i = 0; i < pages.length; i++) {
+                if (pages[i] == null) continue;
+                out.writeShort(i);
+                for (long word : pages[i]) {
+                    out.writeLong(word);
+                }
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads a coverage file written by {@link #write}, keeping the font order.
+     */
+    public static Map<String, FontCoverage> read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not a font coverage file");
+        }
+        int fontCount = in.readInt();
+        Map<String, FontCoverage> fonts = new LinkedHashMap<>();
+        for (int f = 0; f < fontCount; f++) {
+            String name = in.readUTF();
+            int pageCount = in.readInt();
+            long[][] pages = new long[(MAX_CODE_POINT >>> 8) + 1][];
+            int length = 0;
+            for (int p = 0; p < pageCount; p++) {
+                int index = in.readUnsignedShort();
+                long[] page = new long[PAGE_WORDS];
+                for (int w = 0; w < PAGE_WORDS; w++) {
+                    page[w] = in.readLong();
+                }
+                pages[index] = page;
+                length = Math.max(length, index + 1);
+            }
+            fonts.put(name, new FontCoverage(Arrays.copyOf(pages, length)));
+        }
+        return fonts;
+    }
+
+    /**
+     * Build step: computes the coverage of every font file of a directory.
+     * Run by Maven after compilation; arguments are the font directory and the
+     * coverage file to write.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: FontCoverage <font directory> <coverage file>");
+            System.exit(2);
+        }
+        Path directory = Paths.get(args[0]);
+        Path output = Paths.get(args[1]);
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.{ttf,otf}")) {
+            stream.forEach(files::add);
+        }
+        Collections.sort(files);
+
+        Map<String, FontCoverage> fonts = new LinkedHashMap<>();
+        for (Path file : files) {
+            FontCoverage coverage = parse(Files.readAllBytes(file));
+            fonts.put(file.getFileName().toString(), coverage);
+            System.out.println("Font coverage: " + file.getFileName() + " (" + coverage.size() + " code points)");
+        }
+
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        try (OutputStream out = Files.newOutputStream(output)) {
+            write(fonts, out);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.textstyle.util;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Grapheme cluster helpers for cutting text without splitting
+ * surrogate pairs, combining sequences or emoji sequences.
+ * Scanning stops as soon as the requested number of clusters is reached.
+ */
+public final class Graphemes {
+    private static final Pattern GRAPHEME = Pattern.compile("\\X");
+
+    private Graphemes() {
+    }
+
+    /**
+     * Returns the char index just after the first maxGraphemes clusters of the text.
+     */
+    public static int prefixLength(String text, int maxGraphemes) {
+        if (maxGraphemes <= 0 || text.isEmpty()) {
+            return 0;
+        }
+        Matcher matcher = GRAPHEME.matcher(text);
+        int end = 0;
+        for (int count = 0; count < maxGraphemes && matcher.find(); count++) {
+            end = matcher.end();
+        }
+        return end;
+    }
+
+    /**
+     * Returns the first maxGraphemes clusters of the text.
+     */
+    public static String prefix(String text, int maxGraphemes) {
+        return text.substring(0, prefixLength(text, maxGraphemes));
+    }
+
+    /**
+     * Returns the text cut to maxGraphemes clusters, followed by "..." when it was longer.
+     */
+    public static String ellipsize(String text, int maxGraphemes) {
+        int end = prefixLength(text, maxGraphemes);
+        if (end < text.length()) {
+            return text.substring(0, end) + "...";
+        }
+        return text;
+    }
+}
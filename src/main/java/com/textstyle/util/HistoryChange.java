@@ -0,0 +1,97 @@
+package com.textstyle.util;
+
+import com.textstyle.model.HistoryEntry;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One change to the history list, expressed on indices (0 = newest).
+ * Applying the changes of a batch in order to a copy of the list keeps it equal
+ * to the history. Each change carries the history version it produced, so a
+ * copy taken at a given version can skip the changes it already contains.
+ */
+public final class HistoryChange {
+
+    public enum Type {
+        /** Entries inserted at the index. */
+        ADDED,
+        /** Count entries removed from the index. */
+        REMOVED,
+        /** The entry at the index removed and the new entry inserted at the target index. */
+        MOVED,
+        /** Every entry removed. */
+        CLEARED
+    }
+
+    private final Type type;
+    private final long version;
+    private final int index;
+    private final int count;
+    private final int toIndex;
+    private final List<HistoryEntry> entries;
+
+    private HistoryChange(Type type, long version, int index, int count, int toIndex,
+                          List<HistoryEntry> entries) {
+        this.type = type;
+        this.version = version;
+        this.index = index;
+        this.count = count;
+        this.toIndex = toIndex;
+        this.entries = entries;
+    }
+
+    static HistoryChange added(long version, int index, List<HistoryEntry> entries) {
+        return new HistoryChange(Type.ADDED, version, index, entries.size(), index,
+                                 Collections.unmodifiableList(entries));
+    }
+
+    static HistoryChange removed(long version, int index, int count) {
+        return new HistoryChange(Type.REMOVED, version, index, count, index, Collections.emptyList());
+    }
+
+    static HistoryChange moved(long version, int fromIndex, int toIndex, HistoryEntry entry) {
+        return new HistoryChange(Type.MOVED, version, fromIndex, 1, toIndex, Collections.singletonList(entry));
+    }
+
+    static HistoryChange cleared(long version) {
+        return new HistoryChange(Type.CLEARED, version, 0, 0, 0, Collections.emptyList());
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the first affected index (the source index for MOVED).
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the target index of a MOVED change.
+     */
+    public int getToIndex() {
+        return toIndex;
+    }
+
+    /**
+     * Returns the inserted entries of ADDED and MOVED changes.
+     */
+    public List<HistoryEntry> getEntries() {
+        return entries;
+    }
+
+    @Override
+    public String toString() {
+        return type + "@" + version + "[" + index + (type == Type.MOVED ? "->" + toIndex : "") + ", " + count + "]";
+    }
+}
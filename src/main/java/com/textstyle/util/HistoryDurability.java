@@ -0,0 +1,26 @@
+package com.textstyle.util;
+
+import java.util.Locale;
+
+/**
+ * When queued history changes reach the disk.
+ * Read from {@code -Dtextstyle.historyDurability=per_write|batched|on_exit}.
+ */
+public enum HistoryDurability {
+    /** Each change is written and synced on its own. */
+    PER_WRITE,
+    /** Changes queued together are written and synced as one batch. */
+    BATCHED,
+    /** Changes are kept in memory until {@link HistoryManager#flush()} (application exit). */
+    ON_EXIT;
+
+    static HistoryDurability fromProperty() {
+        String value = System.getProperty("textstyle.historyDurability", "batched");
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown history durability: " + value + ", using batched");
+            return BATCHED;
+        }
+    }
+}
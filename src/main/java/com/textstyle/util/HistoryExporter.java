@@ -0,0 +1,149 @@
+package com.textstyle.util;
+
+import com.textstyle.model.HistoryEntry;
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Streams history entries to a file, one entry at a time.
+ * Only the entry being written is held in memory, including stored texts,
+ * so the export size does not depend on the heap.
+ */
+public final class HistoryExporter {
+
+    /**
+     * Export file formats.
+     */
+    public enum Format {
+        /** Readable listing, same layout as earlier versions. */
+        TEXT("txt"),
+        /** id, timestamp, text; RFC 4180 quoting, the text always quoted. */
+        CSV("csv"),
+        /** One JSON object per line. */
+        JSON_LINES("jsonl"),
+        /** The native binary history format, with every text inlined. */
+        BINARY("bin");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Returns the format matching a file name's extension, or TEXT.
+         */
+        public static Format forFileName(String fileName) {
+            String lower = fileName.toLowerCase();
+            for (Format format : values()) {
+                if (lower.endsWith("." + format.extension)) {
+                    return format;
+                }
+            }
+            return TEXT;
+        }
+    }
+
+    private static final DateTimeFormatter EXPORT_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+    private static final DateTimeFormatter ENTRY_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final int PROGRESS_STEP = 500;
+
+    private HistoryExporter() {
+    }
+
+    /**
+     * Writes the entries (newest first) to the file in the given format.
+     */
+    public static void export(List<HistoryEntry> entries, Path file, Format format,
+                              ProgressListener progress) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024)) {
+            if (format == Format.BINARY) {
+                writeBinary(entries, out, progress);
+            } else {
+                Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                writeText(entries, writer, format, progress);
+                writer.flush();
+            }
+        }
+    }
+
+    /**
+     * Writes the entries (newest first) as characters in a text-based format.
+     */
+    public static void writeText(List<HistoryEntry> entries, Writer writer, Format format,
+                                 ProgressListener progress) throws IOException {
+        int total = entries.size();
+        Writer csv = new EscapingWriter(writer, EscapingWriter.Syntax.CSV);
+        Writer json = new EscapingWriter(writer, EscapingWriter.Syntax.JSON);
+        if (format == Format.TEXT) {
+            writer.write("=== HISTORIQUE TEXT STYLE CONVERTER ===\n");
+            writer.write("Exporté le : " + LocalDateTime.now().format(EXPORT_DATE) + "\n");
+            writer.write("Total : " + total + " entrée" + (total > 1 ? "s" : "") + "\n\n");
+            writer.write("=".repeat(50) + "\n\n");
+        } else if (format == Format.CSV) {
+            writer.write("id,timestamp,text\r\n");
+        }
+
+        for (int i = 0; i < total; i++) {
+            HistoryEntry entry = entries.get(i);
+            switch (format) {
+                case TEXT:
+                    writer.write((i + 1) + ". [" + entry.getTimestamp().format(ENTRY_DATE) + "]\n");
+                    writer.write("Texte: " + textOf(entry) + "\n");
+                    writer.write("-".repeat(50) + "\n\n");
+                    break;
+                case CSV:
+                    writer.write(entry.getId() + "," + entry.getTimestamp() + ",\"");
+                    csv.write(textOf(entry));
+                    writer.write("\"\r\n");
+                    break;
+                case JSON_LINES:
+                    writer.write("{\"id\":" + entry.getId()
+                                 + ",\"timestamp\":\"" + entry.getTimestamp() + "\",\"text\":\"");
+                    json.write(textOf(entry));
+                    writer.write("\"}\n");
+                    break;
+                default:
+                    throw new IllegalArgumentException("Not a text format: " + format);
+            }
+            reportProgress(progress, i + 1, total);
+        }
+    }
+
+    private static void writeBinary(List<HistoryEntry> entries, OutputStream out,
+                                    ProgressListener progress) throws IOException {
+        int total = entries.size();
+        HistoryJournal.writeHeader(out);
+        for (int i = total - 1; i >= 0; i--) {
+            HistoryJournal.writeEntry(out, entries.get(i), true);
+            reportProgress(progress, total - i, total);
+        }
+    }
+
+    private static String textOf(HistoryEntry entry) throws IOException {
+        String text = entry.getText();
+        if (text == null) {
+            throw new IOException("Stored history text cannot be read: " + entry.getContentKey());
+        }
+        return text;
+    }
+
+    private static void reportProgress(ProgressListener progress, long written, long total) {
+        if (progress != null && (written % PROGRESS_STEP == 0 || written == total)) {
+            progress.onProgress(written, total);
+        }
+    }
+}
@@ -0,0 +1,733 @@
+package com.textstyle.util;
+
+import com.textstyle.model.HistoryEntry;
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary journal backing the conversion history.
+ * The file starts with the magic {@code TSHJ} and a version byte, followed by records:
+ * <pre>
+ *   '+' varint id, varint epochMillis, varint length, UTF-8 text, CRC32   entry added (newest)
+ *   '*' varint id, varint epochMillis, varint length, 32-byte SHA-256,
+ *       varint previewLength, UTF-8 preview, CRC32                        entry added, text in the {@link BlobStore}
+ *   '-' varint id, CRC32                                                  entry removed
+ *   '!' CRC32                                                             history cleared
+ * </pre>
+ * Texts of stored entries are written to the blob store before their record,
+ * as soon as they are queued whatever the durability mode, so large texts
+ * never wait in memory for a flush; blobs no longer referenced are deleted
+ * after a compaction.
+ * The CRC32 covers the type byte and the payload. The file is read into memory
+ * in one read (not mapped, so it can be truncated and replaced on Windows too);
+ * a torn or corrupt tail, including lengths past the end of the file, is cut
+ * off at the last valid record.
+ * Records are queued and written behind by a single writer thread, which
+ * batches queued records into one write and syncs them according to the
+ * {@link HistoryDurability} mode; callers never wait on the disk
+ * except in {@link #flush()}.
+ * Replaced records accumulate until a compaction, queued like any record,
+ * rewrites the file with only the live entries through a temp file and an
+ * atomic move.
+ * Text history files of earlier versions (the line journal or one
+ * {@code id|timestamp|text} line per entry) are migrated on first load and
+ * kept with a {@code .bak} suffix. They were written in the platform charset,
+ * so they are decoded with it, then as UTF-8; a file neither decodes is left
+ * in place and not migrated.
+ * A binary file with an unknown header (damaged, or from a newer version) is
+ * renamed with a {@code .unreadable} suffix before anything is written.
+ */
+public class HistoryJournal {
+    private static final int MIN_DEAD_RECORDS = 100;
+    private static final byte[] MAGIC = { 'T', 'S', 'H', 'J' };
+    private static final byte VERSION = 2;
+    private static final byte ADD = '+';
+    private static final byte ADD_STORED = '*';
+    private static final byte REMOVE = '-';
+    private static final byte CLEAR = '!';
+
+    private final Path file;
+    private final Path textFile;
+    private final BlobStore blobStore;
+    private final HistoryDurability durability;
+    private final Charset legacyCharset;
+    private final Object lock = new Object();
+    private final List<Object> queue = new ArrayList<>();
+    private final List<String> blobQueue = new ArrayList<>();
+    // Keys of stored texts whose add record is not written yet; compaction keeps their blobs
+    private final List<String> unrecordedKeys = new ArrayList<>();
+    private final Thread writer;
+
+    private long queuedCount = 0;
+    private long writtenCount = 0;
+    private long flushTarget = 0;
+    private FileChannel channel;
+
+    private int deadRecords = 0;
+    private boolean needsRewrite = false;
+    private boolean migrating = false;
+    private boolean compactionQueued = false;
+
+    /**
+     * Creates a journal on the given binary file.
+     * @param textFile text history file of earlier versions, migrated when the binary file does not exist
+     * @param blobStore store holding the texts of stored entries
+     */
+    public HistoryJournal(Path file, Path textFile, BlobStore blobStore, HistoryDurability durability) {
+        this(file, textFile, blobStore, durability, Charset.defaultCharset());
+    }
+
+    /**
+     * Creates a journal reading the text history file in the given charset first.
+     */
+    HistoryJournal(Path file, Path textFile, BlobStore blobStore, HistoryDurability durability,
+                   Charset legacyCharset) {
+        this.file = file;
+        this.legacyCharset = legacyCharset;
+        this.textFile = textFile;
+        this.blobStore = blobStore;
+        this.durability = durability;
+        this.writer = new Thread(this::runWriter, "textstyle-history-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Replays the journal and returns the live entries, newest first.
+     */
+    public List<HistoryEntry> load() {
+        if (!Files.exists(file)) {
+            return textFile != null && Files.exists(textFile) ? loadTextFile() : new ArrayList<>();
+        }
+
+        long start = PerfLog.start();
+        LinkedHashMap<Long, HistoryEntry> entries = new LinkedHashMap<>();
+        int records = 0;
+        long validLength = 0;
+        long fileLength = 0;
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            fileLength = buffer.limit();
+            if (!readHeader(buffer)) {
+                moveAsideUnreadable();
+                return new ArrayList<>();
+            }
+            validLength = buffer.position();
+            byte[] text = new byte[256];
+            byte[] key = new byte[32];
+            CRC32 crc = new CRC32();
+            while (buffer.hasRemaining()) {
+                int recordStart = buffer.position();
+                byte type = buffer.get();
+                long id = 0;
+                long millis = 0;
+                int length = 0;
+                int textBytes = 0;
+                if (type == ADD || type == ADD_STORED) {
+                    id = readVarLong(buffer);
+                    millis = readVarLong(buffer);
+                    length = readLength(buffer, type == ADD ? buffer.remaining() : Integer.MAX_VALUE);
+                    textBytes = length;
+                    if (type == ADD_STORED) {
+                        buffer.get(key);
+                        textBytes = readLength(buffer, buffer.remaining());
+                    }
+                    if (textBytes > text.length) {
+                        text = new byte[Math.max(textBytes, text.length * 2)];
+                    }
+                    buffer.get(text, 0, textBytes);
+                } else if (type == REMOVE) {
+                    id = readVarLong(buffer);
+                } else if (type != CLEAR) {
+                    throw new IOException("Unknown history record type " + type);
+                }
+
+                crc.reset();
+                crc.update(buffer.duplicate().position(recordStart).limit(buffer.position()));
+                if (buffer.getInt() != (int) crc.getValue()) {
+                    throw new IOException("History record checksum mismatch");
+                }
+
+                if (type == ADD || type == ADD_STORED) {
+                    String value = new String(text, 0, textBytes, StandardCharsets.UTF_8);
+                    entries.put(id, type == ADD
+                        ? new HistoryEntry(id, value, millis)
+                        : new HistoryEntry(id, millis, value, length, BlobStore.toHex(key), blobStore::read));
+                } else if (type == REMOVE) {
+                    entries.remove(id);
+                } else {
+                    entries.clear();
+                }
+                records++;
+                validLength = buffer.position();
+            }
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            System.err.println("History file damaged after " + validLength + " bytes: " + e.getMessage());
+        }
+
+        if (validLength < fileLength) {
+            truncate(validLength);
+        }
+
+        List<HistoryEntry> result = new ArrayList<>(entries.values());
+        Collections.reverse(result);
+        synchronized (lock) {
+            deadRecords = records - result.size();
+        }
+        PerfLog.log("History file loaded (" + result.size() + " entries)", start);
+        return result;
+    }
+
+    /**
+     * Queues an added entry.
+     */
+    public void appendAdd(HistoryEntry entry) {
+        if (!entry.isStored()) {
+            enqueue(addRecord(entry));
+            return;
+        }
+        StoredAdd add = new StoredAdd(entry.getContentKey(), addRecord(entry));
+        synchronized (lock) {
+            blobQueue.add(add.key);
+            unrecordedKeys.add(add.key);
+        }
+        enqueue(add);
+    }
+
+    /**
+     * Queues the removal of an entry; its add record becomes dead.
+     */
+    public void appendRemove(HistoryEntry entry) {
+        synchronized (lock) {
+            deadRecords += 2;
+        }
+        enqueue(record(REMOVE, out -> writeVarLong(out, entry.getId())));
+    }
+
+    /**
+     * Queues a clear marker; every earlier record becomes dead.
+     */
+    public void appendClear(int liveEntries) {
+        synchronized (lock) {
+            deadRecords += liveEntries + 1;
+        }
+        enqueue(record(CLEAR, out -> { }));
+    }
+
+    /**
+     * Returns true once dead records outnumber live entries past a minimum,
+     * or when the file must be rewritten (migration, damaged tail).
+     */
+    public boolean needsCompaction(int liveEntries) {
+        synchronized (lock) {
+            return !compactionQueued
+                && (needsRewrite || deadRecords >= Math.max(MIN_DEAD_RECORDS, liveEntries));
+        }
+    }
+
+    /**
+     * Queues a rewrite of the journal with the given live entries (newest first).
+     * Records queued before it end up in the replaced file; records queued
+     * after it are appended to the new file.
+     */
+    public void compactAsync(List<HistoryEntry> snapshot) {
+        synchronized (lock) {
+            if (compactionQueued) return;
+            compactionQueued = true;
+            deadRecords = 0;
+            needsRewrite = false;
+        }
+        enqueue(new Compaction(snapshot));
+    }
+
+    /**
+     * Blocks until every record queued so far is written and synced to disk.
+     */
+    public void flush() {
+        synchronized (lock) {
+            flushTarget = Math.max(flushTarget, queuedCount);
+            lock.notifyAll();
+            boolean interrupted = false;
+            while (writtenCount < flushTarget && writer.isAlive()) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Writes everything queued, stops the writer thread and closes the file.
+     * The journal accepts no records afterwards.
+     */
+    public void close() {
+        flush();
+        writer.interrupt();
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeChannel();
+    }
+
+    private void enqueue(Object job) {
+        synchronized (lock) {
+            queue.add(job);
+            queuedCount++;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Writer loop: writes queued blobs, then takes every queued record at once
+     * and writes them as one batch.
+     * In ON_EXIT mode queued records wait until a flush is requested; blobs do not.
+     */
+    private void runWriter() {
+        while (true) {
+            List<String> blobs;
+            List<Object> batch;
+            synchronized (lock) {
+                while (blobQueue.isEmpty() && !recordsDue()) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                blobs = new ArrayList<>(blobQueue);
+                blobQueue.clear();
+                batch = new ArrayList<>();
+                if (recordsDue()) {
+                    batch.addAll(queue);
+                    queue.clear();
+                }
+            }
+
+            for (String key : blobs) {
+                try {
+                    blobStore.write(key);
+                } catch (IOException e) {
+                    System.err.println("Failed to save history text: " + e.getMessage());
+                }
+            }
+            writeBatch(batch);
+
+            synchronized (lock) {
+                writtenCount += batch.size();
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private boolean recordsDue() {
+        return !queue.isEmpty()
+            && !(durability == HistoryDurability.ON_EXIT && writtenCount >= flushTarget);
+    }
+
+    private void writeBatch(List<Object> batch) {
+        ByteArrayOutputStream pending = new ByteArrayOutputStream();
+        for (Object job : batch) {
+            if (job instanceof Compaction) {
+                write(pending);
+                compact(((Compaction) job).snapshot);
+                synchronized (lock) {
+                    compactionQueued = false;
+                }
+            } else if (job instanceof StoredAdd) {
+                StoredAdd add = (StoredAdd) job;
+                pending.writeBytes(add.record);
+                synchronized (lock) {
+                    unrecordedKeys.remove(add.key);
+                }
+                if (durability == HistoryDurability.PER_WRITE) {
+                    write(pending);
+                }
+            } else {
+                pending.writeBytes((byte[]) job);
+                if (durability == HistoryDurability.PER_WRITE) {
+                    write(pending);
+                }
+            }
+        }
+        write(pending);
+    }
+
+    private void write(ByteArrayOutputStream records) {
+        if (records.size() == 0) {
+            return;
+        }
+        try {
+            if (channel == null) {
+                channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                                           StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                if (channel.size() == 0) {
+                    writeFully(channel, ByteBuffer.wrap(header()));
+                }
+            }
+            writeFully(channel, ByteBuffer.wrap(records.toByteArray()));
+            channel.force(false);
+        } catch (IOException e) {
+            System.err.println("Failed to save history: " + e.getMessage());
+            closeChannel();
+        }
+        records.reset();
+    }
+
+    private void compact(List<HistoryEntry> snapshot) {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                OutputStream stream = new BufferedOutputStream(Channels.newOutputStream(out));
+                writeHeader(stream);
+                for (int i = snapshot.size() - 1; i >= 0; i--) {
+                    writeEntry(stream, snapshot.get(i), false);
+                }
+                stream.flush();
+                out.force(false);
+            }
+            closeChannel();
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            Set<String> storedKeys = new HashSet<>();
+            for (HistoryEntry entry : snapshot) {
+                if (entry.isStored()) storedKeys.add(entry.getContentKey());
+            }
+            synchronized (lock) {
+                // Texts added after the snapshot: their records follow the compaction
+                storedKeys.addAll(unrecordedKeys);
+            }
+            blobStore.retainOnly(storedKeys);
+            if (migrating) {
+                Files.move(textFile, textFile.resolveSibling(textFile.getFileName() + ".bak"),
+                           StandardCopyOption.REPLACE_EXISTING);
+                migrating = false;
+                System.out.println("History migrated to " + file);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to compact history: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Renames a file this version cannot read, so that new records start a
+     * fresh file instead of being appended after a header no load accepts,
+     * and a newer version's file is never overwritten by a compaction.
+     */
+    private void moveAsideUnreadable() {
+        Path aside = file.resolveSibling(file.getFileName() + ".unreadable");
+        try {
+            Files.move(file, aside, StandardCopyOption.REPLACE_EXISTING);
+            System.err.println("Unknown history file format, kept as " + aside);
+        } catch (IOException e) {
+            System.err.println("Unknown history file format: " + file + " (" + e.getMessage() + ")");
+        }
+    }
+
+    private void truncate(long length) {
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            out.truncate(length);
+        } catch (IOException e) {
+            System.err.println("Failed to repair history file: " + e.getMessage());
+        }
+        synchronized (lock) {
+            needsRewrite = true;
+        }
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+            channel = null;
+        }
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private static byte[] header() {
+        byte[] header = Arrays.copyOf(MAGIC, MAGIC.length + 1);
+        header[MAGIC.length] = VERSION;
+        return header;
+    }
+
+    private static boolean readHeader(ByteBuffer buffer) {
+        if (buffer.remaining() < MAGIC.length + 1) {
+            return buffer.remaining() == 0;
+        }
+        for (byte b : MAGIC) {
+            if (buffer.get() != b) return false;
+        }
+        byte version = buffer.get();
+        return version >= 1 && version <= VERSION;
+    }
+
+    /**
+     * Writes the file header of the binary format.
+     */
+    public static void writeHeader(OutputStream out) throws IOException {
+        out.write(header());
+    }
+
+    /**
+     * Writes the add record of an entry in the binary format.
+     * Entries are written oldest first, after {@link #writeHeader(OutputStream)}.
+     * @param inlineStoredText write stored texts in full instead of referencing the blob store
+     * @throws IOException also when a stored text to write in full cannot be read
+     */
+    public static void writeEntry(OutputStream out, HistoryEntry entry, boolean inlineStoredText) throws IOException {
+        if (inlineStoredText && entry.isStored()) {
+            String text = entry.getText();
+            if (text == null) {
+                throw new IOException("Stored history text cannot be read: " + entry.getContentKey());
+            }
+            entry = new HistoryEntry(entry.getId(), text, entry.getTimestampMillis());
+        }
+        out.write(addRecord(entry));
+    }
+
+    private static byte[] addRecord(HistoryEntry entry) {
+        long millis = entry.getTimestampMillis();
+        if (entry.isStored()) {
+            byte[] preview = entry.getStoredPreview().getBytes(StandardCharsets.UTF_8);
+            return record(ADD_STORED, out -> {
+                writeVarLong(out, entry.getId());
+                writeVarLong(out, millis);
+                writeVarLong(out, entry.getLength());
+                out.writeBytes(fromHex(entry.getContentKey()));
+                writeVarLong(out, preview.length);
+                out.writeBytes(preview);
+            });
+        }
+        byte[] text = entry.getText().getBytes(StandardCharsets.UTF_8);
+        return record(ADD, out -> {
+            writeVarLong(out, entry.getId());
+            writeVarLong(out, millis);
+            writeVarLong(out, text.length);
+            out.writeBytes(text);
+        });
+    }
+
+    private static byte[] fromHex(String hex) {
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+        }
+        return bytes;
+    }
+
+    /**
+     * Encodes one record: type byte, payload and CRC32 of both.
+     */
+    private static byte[] record(byte type, Consumer<ByteArrayOutputStream> payload) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(type);
+        payload.accept(out);
+        CRC32 crc = new CRC32();
+        crc.update(out.toByteArray());
+        int value = (int) crc.getValue();
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+        return out.toByteArray();
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    /**
+     * Reads a varint length, rejecting values a damaged record could hold
+     * before they size an array or a read.
+     */
+    private static int readLength(ByteBuffer buffer, int max) throws IOException {
+        long value = readVarLong(buffer);
+        if (value < 0 || value > max) {
+            throw new IOException("History record length out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    /**
+     * Reads a text history file of an earlier version for migration.
+     * Ids are made strictly decreasing from newest to oldest.
+     */
+    private List<HistoryEntry> loadTextFile() {
+        List<String> lines = readTextFileLines();
+        if (lines == null) {
+            System.err.println("History of an earlier version could not be read and is left in place: " + textFile);
+            return new ArrayList<>();
+        }
+        Deque<HistoryEntry> entries = new ArrayDeque<>();
+        for (String line : lines) {
+            if (line.isEmpty()) continue;
+            try {
+                switch (line.charAt(0)) {
+                    case '+':
+                        entries.addFirst(parseAdd(line));
+                        break;
+                    case '-':
+                        removeOldest(entries, Long.parseLong(line.substring(2)));
+                        break;
+                    case '!':
+                        entries.clear();
+                        break;
+                    default:
+                        entries.addLast(parseLegacy(line));
+                        break;
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Skipping malformed history record: " + e.getMessage());
+            }
+        }
+
+        List<HistoryEntry> result = new ArrayList<>(entries.size());
+        long previousId = Long.MAX_VALUE;
+        for (HistoryEntry entry : entries) {
+            long id = Math.min(entry.getId(), previousId - 1);
+            result.add(id == entry.getId() ? entry : new HistoryEntry(id, entry.getText(), entry.getTimestampMillis()));
+            previousId = id;
+        }
+        synchronized (lock) {
+            needsRewrite = true;
+            migrating = true;
+        }
+        return result;
+    }
+
+    /**
+     * Reads the lines of the text history file, decoded strictly with the
+     * legacy charset, then as UTF-8. Returns null when the file cannot be read
+     * or decoded, so that a partial history never replaces it.
+     */
+    private List<String> readTextFileLines() {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(textFile);
+        } catch (IOException e) {
+            System.err.println("Failed to load history: " + e.getMessage());
+            return null;
+        }
+        for (Charset charset : new LinkedHashSet<>(Arrays.asList(legacyCharset, StandardCharsets.UTF_8))) {
+            try {
+                String text = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(bytes))
+                    .toString();
+                return text.lines().collect(Collectors.toList());
+            } catch (CharacterCodingException e) {
+                System.err.println("History file is not " + charset + ": " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Queued add record of a stored entry, written after its text.
+     */
+    private static final class StoredAdd {
+        private final String key;
+        private final byte[] record;
+
+        StoredAdd(String key, byte[] record) {
+            this.key = key;
+            this.record = record;
+        }
+    }
+
+    /**
+     * Queued journal rewrite.
+     */
+    private static final class Compaction {
+        private final List<HistoryEntry> snapshot;
+
+        Compaction(List<HistoryEntry> snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
+
+    private static HistoryEntry parseAdd(String line) {
+        String[] parts = line.split("\\|", 4);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException(line);
+        }
+        return new HistoryEntry(Long.parseLong(parts[1]), unescape(parts[3]), LocalDateTime.parse(parts[2]));
+    }
+
+    private static HistoryEntry parseLegacy(String line) {
+        String[] parts = line.split("\\|", 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException(line);
+        }
+        return new HistoryEntry(Long.parseLong(parts[0]), parts[2].replace("\\n", "\n"),
+                                LocalDateTime.parse(parts[1]));
+    }
+
+    private static void removeOldest(Deque<HistoryEntry> entries, long id) {
+        Iterator<HistoryEntry> it = entries.descendingIterator();
+        while (it.hasNext()) {
+            if (it.next().getId() == id) {
+                it.remove();
+                return;
+            }
+        }
+    }
+
+    private static String unescape(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                char next = text.charAt(++i);
+                sb.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -2,31 +2,99 @@ package com.textstyle.util;
 
 import com.textstyle.model.HistoryEntry;
 import java.util.*;
-import java.io.*;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 
 /**
  * Manages the history of text conversions.
  * Handles persistence, retrieval, and management of history entries.
+ * Changes are appended to a binary {@link HistoryJournal} instead of rewriting the file.
+ * Journal writes happen behind a queue on a background writer; the durability
+ * mode ({@link HistoryDurability}) is read from {@code -Dtextstyle.historyDurability=per_write|batched|on_exit}.
+ * Listeners receive batches of {@link HistoryChange} deltas on their own executor.
+ * History is loaded with {@link #load()} or delivered in chunks with {@link #loadAsync(Executor)}.
+ * Entries are kept newest first in a {@link RingBuffer} whose capacity is read
+ * from {@code -Dtextstyle.historyCapacity} (default 50).
+ * A {@link HistorySearchIndex} built in the background after loading answers
+ * text searches and is kept in sync with additions and evictions.
+ * Texts are unique: a 64-bit content hash maps each text to its entry.
+ * Texts longer than {@code -Dtextstyle.historyStoreThreshold} chars (default 16384)
+ * are kept in a {@link BlobStore} and loaded on demand; the entry holds a preview.
+ * All methods except {@link #getEntries()} may be called from any thread: each
+ * manager guards its state with its own lock, so managers of different users
+ * (see {@link HistoryStore}) never contend. Listeners called on the changing
+ * thread run under that lock. {@link #getEntries()} returns a live view that
+ * must only be read on the thread that changes the history (the FX thread in
+ * the application); other threads use {@link #getEntries(int, int)} or
+ * {@link #getAllEntries()}, which return copies.
  */
 public class HistoryManager {
-    private static final int MAX_HISTORY_SIZE = 50;
+    private static final int DEFAULT_CAPACITY = 50;
     private static final String HISTORY_FILE = System.getProperty("user.home") + 
-                                               "/.textstyle_history.txt";
+                                               "/.textstyle_history.bin";
+    private static final String TEXT_HISTORY_FILE = System.getProperty("user.home") + 
+                                                    "/.textstyle_history.txt";
+    private static final String BLOB_DIRECTORY = System.getProperty("user.home") + 
+                                                 "/.textstyle_history_texts";
+    private static final int DEFAULT_STORE_THRESHOLD = 16 * 1024;
+    private static final int FIRST_PAGE_SIZE = 100;
+    private static final int LOAD_CHUNK_SIZE = 2000;
     
-    private final List<HistoryEntry> history;
-    private final List<HistoryChangeListener> listeners;
+    private final RingBuffer<HistoryEntry> history;
+    private final List<HistoryEntry> readOnlyHistory;
+    private final List<Subscription> listeners;
+    private final List<HistoryChange> pendingChanges;
+    private final HistoryJournal journal;
+    private final HistorySearchIndex searchIndex;
+    private final Map<Long, HistoryEntry> entriesByContent;
+    private final BlobStore blobStore;
+    private final int storeThreshold;
+    private final Object lock = new Object();
+    private boolean loaded = false;
+    private boolean closed = false;
+    private boolean droppedOnLoad = false;
+    private long loadGeneration = 0;
+    private volatile long version = 0;
 
     public HistoryManager() {
-        this.history = new ArrayList<>();
-        this.listeners = new ArrayList<>();
-        loadHistory();
+        this(HistoryDurability.fromProperty());
+    }
+
+    public HistoryManager(HistoryDurability durability) {
+        this(Integer.getInteger("textstyle.historyCapacity", DEFAULT_CAPACITY), durability);
+    }
+
+    public HistoryManager(int capacity, HistoryDurability durability) {
+        this(Paths.get(HISTORY_FILE), Paths.get(TEXT_HISTORY_FILE), Paths.get(BLOB_DIRECTORY),
+             capacity, durability);
+    }
+
+    /**
+     * Creates a manager on the given files.
+     * @param textHistoryFile text history file of earlier versions to migrate, or null
+     */
+    public HistoryManager(Path historyFile, Path textHistoryFile, Path blobDirectory,
+                          int capacity, HistoryDurability durability) {
+        this.history = new RingBuffer<>(capacity);
+        this.readOnlyHistory = Collections.unmodifiableList(history);
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.pendingChanges = new ArrayList<>();
+        this.blobStore = new BlobStore(blobDirectory,
+            Boolean.parseBoolean(System.getProperty("textstyle.historyCompress", "true")));
+        this.storeThreshold = Integer.getInteger("textstyle.historyStoreThreshold", DEFAULT_STORE_THRESHOLD);
+        this.journal = new HistoryJournal(historyFile, textHistoryFile, blobStore, durability);
+        this.searchIndex = new HistorySearchIndex();
+        this.entriesByContent = new HashMap<>();
     }
 
     /**
      * Adds a new entry to the history.
-     * Avoids duplicate consecutive entries.
+     * A text already in history is moved to the front with a new timestamp.
      */
     public void addEntry(String text) {
         if (text == null || text.trim().isEmpty()) {
@@ -34,129 +102,445 @@ public class HistoryManager {
         }
         
         text = text.trim();
-        
-        if (!history.isEmpty() && history.get(0).getText().equals(text)) {
-            return;
+        // Hashed outside the lock
+        String contentKey = text.length() > storeThreshold ? BlobStore.keyOf(text) : null;
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("History is closed");
+            }
+            add(text, contentKey);
+        }
+    }
+
+    private void add(String text, String contentKey) {
+        long hash = contentKey != null ? keyHash(contentKey) : textHash(text);
+        HistoryEntry existing = entriesByContent.get(hash);
+        int movedFrom = -1;
+        if (existing != null && (existing.isStored()
+                ? existing.getContentKey().equals(contentKey)
+                : existing.getText().equals(text))) {
+            if (history.get(0) == existing) {
+                return;
+            }
+            movedFrom = indexOf(existing);
+            history.removeAt(movedFrom);
+            journal.appendRemove(existing);
+            searchIndex.remove(existing);
         }
         
-        HistoryEntry entry = new HistoryEntry(text);
-        history.add(0, entry);
+        HistoryEntry entry;
+        if (contentKey != null) {
+            blobStore.stage(contentKey, text);
+            entry = HistoryEntry.stored(Graphemes.prefix(text, HistoryEntry.STORED_PREVIEW_LENGTH),
+                                        text.length(), contentKey, blobStore::read);
+        } else {
+            entry = new HistoryEntry(text);
+        }
+        HistoryEntry evicted = history.addFirst(entry);
+        entriesByContent.put(hash, entry);
+        journal.appendAdd(entry);
+        searchIndex.add(entry);
         
-        if (history.size() > MAX_HISTORY_SIZE) {
-            history.remove(history.size() - 1);
+        if (evicted != null) {
+            entriesByContent.remove(hashOf(evicted), evicted);
+            journal.appendRemove(evicted);
+            searchIndex.remove(evicted);
+            pendingChanges.add(HistoryChange.removed(++version, history.getCapacity() - 1, 1));
         }
+        pendingChanges.add(movedFrom >= 0
+            ? HistoryChange.moved(++version, movedFrom, 0, entry)
+            : HistoryChange.added(++version, 0, Collections.singletonList(entry)));
         
-        saveHistory();
-        notifyListeners();
+        compactIfNeeded();
+        publishChanges();
     }
 
     /**
      * Returns a copy of all history entries.
      */
     public List<HistoryEntry> getAllEntries() {
-        return new ArrayList<>(history);
+        synchronized (lock) {
+            return new ArrayList<>(history);
+        }
+    }
+
+    /**
+     * Returns a read-only live view of the entries, newest first.
+     * The view reflects later changes; it is not a copy, so it should only be
+     * read on the thread that changes the history (the FX thread in the application).
+     * It is not safe to read from any other thread; use {@link #getAllEntries()} there.
+     */
+    public List<HistoryEntry> getEntries() {
+        return readOnlyHistory;
+    }
+
+    /**
+     * Returns a copy of up to count entries starting at index from (newest first).
+     */
+    public List<HistoryEntry> getEntries(int from, int count) {
+        synchronized (lock) {
+            int start = Math.max(0, Math.min(from, history.size()));
+            int end = (int) Math.min(history.size(), (long) start + Math.max(0, count));
+            return new ArrayList<>(history.subList(start, end));
+        }
+    }
+
+    /**
+     * Returns up to limit entries whose text contains the query, newest first,
+     * ignoring case and accents. A blank query returns the newest entries.
+     * Until the index is built, the entries are scanned instead.
+     */
+    public List<HistoryEntry> search(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return getEntries(0, limit);
+        }
+        if (searchIndex.isReady()) {
+            return searchIndex.search(query, limit);
+        }
+        synchronized (lock) {
+            List<HistoryEntry> result = new ArrayList<>();
+            for (int i = 0; i < history.size() && result.size() < limit; i++) {
+                HistoryEntry entry = history.get(i);
+                if (HistorySearchIndex.matches(HistorySearchIndex.searchableText(entry), query)) {
+                    result.add(entry);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Returns the maximum number of entries kept.
+     */
+    public int getCapacity() {
+        return history.getCapacity();
     }
 
     /**
      * Clears all history entries.
      */
     public void clearHistory() {
-        history.clear();
-        saveHistory();
-        notifyListeners();
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("History is closed");
+            }
+            journal.appendClear(history.size());
+            history.clear();
+            entriesByContent.clear();
+            searchIndex.clear();
+            if (!loaded) {
+                // The clear marker covers the entries still loading
+                loadGeneration++;
+                droppedOnLoad = false;
+                finishLoad();
+            }
+            pendingChanges.add(HistoryChange.cleared(++version));
+            compactIfNeeded();
+            publishChanges();
+        }
     }
 
     /**
      * Returns the number of entries in history.
      */
     public int size() {
-        return history.size();
+        synchronized (lock) {
+            return history.size();
+        }
     }
 
     /**
      * Exports history to a formatted string.
+     * Large histories should be streamed with {@link HistoryExporter} instead.
      */
     public String exportHistory() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("=== HISTORIQUE TEXT STYLE CONVERTER ===\n");
-        sb.append("Exporté le : ").append(LocalDateTime.now()
-            .format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss"))).append("\n");
-        sb.append("Total : ").append(history.size()).append(" entrée");
-        if (history.size() > 1) sb.append("s");
-        sb.append("\n\n");
-        sb.append("=".repeat(50)).append("\n\n");
-        
-        for (int i = 0; i < history.size(); i++) {
-            HistoryEntry entry = history.get(i);
-            sb.append(i + 1).append(". [").append(entry.getFormattedDate()).append("]\n");
-            sb.append("Texte: ").append(entry.getText()).append("\n");
-            sb.append("-".repeat(50)).append("\n\n");
+        StringWriter writer = new StringWriter();
+        try {
+            HistoryExporter.writeText(getAllEntries(), writer, HistoryExporter.Format.TEXT, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Blocks until every queued history change is written to disk.
+     * Called when the application closes.
+     */
+    public void flush() {
+        journal.flush();
+    }
+
+    /**
+     * Writes pending changes to disk and stops the background threads.
+     * The manager rejects changes afterwards; reads keep working.
+     */
+    public void close() {
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+            loadGeneration++;
+        }
+        journal.close();
+        searchIndex.close();
+    }
+
+    /**
+     * Returns true once {@link #close()} has been called.
+     */
+    public boolean isClosed() {
+        synchronized (lock) {
+            return closed;
         }
-        
-        return sb.toString();
     }
 
     /**
-     * Saves history to file.
+     * Finds the position of an entry by binary search on its id,
+     * since entries are ordered by decreasing id.
+     * Files of earlier versions may hold equal or unordered ids; those fall back to a scan.
      */
-    private void saveHistory() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(HISTORY_FILE))) {
-            for (HistoryEntry entry : history) {
-                writer.write(entry.getId() + "|" + 
-                           entry.getTimestamp().toString() + "|" + 
-                           entry.getText().replace("\n", "\\n"));
-                writer.newLine();
+    private int indexOf(HistoryEntry entry) {
+        int low = 0;
+        int high = history.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = history.get(mid).getId();
+            if (midId > entry.getId()) {
+                low = mid + 1;
+            } else if (midId < entry.getId()) {
+                high = mid - 1;
+            } else if (history.get(mid) == entry) {
+                return mid;
+            } else {
+                break;
             }
-        } catch (IOException e) {
-            System.err.println("Failed to save history: " + e.getMessage());
         }
+        for (int i = 0; i < history.size(); i++) {
+            if (history.get(i) == entry) return i;
+        }
+        return -1;
+    }
+
+    private static long hashOf(HistoryEntry entry) {
+        return entry.isStored() ? keyHash(entry.getContentKey()) : textHash(entry.getText());
     }
 
     /**
-     * Loads history from file.
+     * Returns true when both entries hold the same text, without loading stored texts.
      */
-    private void loadHistory() {
-        File file = new File(HISTORY_FILE);
-        if (!file.exists()) {
-            return;
+    private static boolean sameText(HistoryEntry a, HistoryEntry b) {
+        if (a.isStored() || b.isStored()) {
+            return a.isStored() && b.isStored() && a.getContentKey().equals(b.getContentKey());
         }
-        
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split("\\|", 3);
-                if (parts.length == 3) {
-                    long id = Long.parseLong(parts[0]);
-                    LocalDateTime timestamp = LocalDateTime.parse(parts[1]);
-                    String text = parts[2].replace("\\n", "\n");
-                    history.add(new HistoryEntry(id, text, timestamp));
-                }
+        return a.getText().equals(b.getText());
+    }
+
+    /**
+     * First 64 bits of a SHA-256 content key.
+     */
+    private static long keyHash(String contentKey) {
+        return Long.parseUnsignedLong(contentKey.substring(0, 16), 16);
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the text.
+     */
+    private static long textHash(String text) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Starts a background rewrite of the journal once it holds enough dead records.
+     */
+    private void compactIfNeeded() {
+        if (loaded && journal.needsCompaction(history.size())) {
+            journal.compactAsync(new ArrayList<>(history));
+        }
+    }
+
+    /**
+     * Loads history from the journal on the calling thread.
+     */
+    public void load() {
+        List<HistoryEntry> entries = journal.load();
+        synchronized (lock) {
+            appendLoaded(entries);
+            finishLoad();
+            publishChanges();
+        }
+    }
+
+    /**
+     * Parses the journal, then delivers its entries from a background thread.
+     * The newest entries are delivered first on the callbacks executor and the
+     * older ones follow in chunks; listeners are notified after each chunk.
+     * Entries added meanwhile stay in front of the loaded ones.
+     * The whole journal is parsed before the first chunk: a later remove or
+     * clear record can cancel any earlier add, so the newest entries are only
+     * known once every record is replayed. Compaction keeps the file close to
+     * one record per live entry, so only delivery is chunked, not parsing.
+     * Parsing happens before this method returns, so entries added afterwards
+     * get ids above every loaded one; journal records are keyed by id.
+     * Call it off the UI thread.
+     */
+    public void loadAsync(Executor callbacks) {
+        long generation;
+        synchronized (lock) {
+            generation = loadGeneration;
+        }
+        long start = PerfLog.start();
+        List<HistoryEntry> entries = journal.load();
+        Thread loader = new Thread(() -> {
+            int from = 0;
+            int chunkSize = FIRST_PAGE_SIZE;
+            do {
+                int to = Math.min(entries.size(), from + chunkSize);
+                List<HistoryEntry> chunk = entries.subList(from, to);
+                boolean last = to == entries.size();
+                callbacks.execute(() -> {
+                    synchronized (lock) {
+                        if (generation != loadGeneration) return;
+                        appendLoaded(chunk);
+                        if (last) {
+                            finishLoad();
+                            PerfLog.log("History loaded (" + history.size() + " entries)", start);
+                        }
+                        publishChanges();
+                    }
+                });
+                from = to;
+                chunkSize = LOAD_CHUNK_SIZE;
+            } while (from < entries.size());
+        }, "textstyle-history-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Returns true once the whole journal has been loaded.
+     */
+    public boolean isLoaded() {
+        synchronized (lock) {
+            return loaded;
+        }
+    }
+
+    /**
+     * Appends loaded entries (newest first) behind the current ones,
+     * skipping texts already present and entries past the capacity.
+     */
+    private void appendLoaded(List<HistoryEntry> entries) {
+        int start = history.size();
+        for (HistoryEntry entry : entries) {
+            long hash = hashOf(entry);
+            HistoryEntry newer = entriesByContent.get(hash);
+            if (newer != null && sameText(newer, entry)) {
+                droppedOnLoad = true;
+                continue;
+            }
+            if (!history.addLast(entry)) {
+                droppedOnLoad = true;
+                break;
             }
-        } catch (IOException | NumberFormatException e) {
-            System.err.println("Failed to load history: " + e.getMessage());
+            entriesByContent.putIfAbsent(hash, entry);
+        }
+        if (history.size() > start) {
+            pendingChanges.add(HistoryChange.added(++version, start,
+                                                   new ArrayList<>(history.subList(start, history.size()))));
+        }
+    }
+
+    private void finishLoad() {
+        loaded = true;
+        if (droppedOnLoad) {
+            // Older duplicates or entries past a lowered capacity: drop them from the file too
+            journal.compactAsync(new ArrayList<>(history));
+            droppedOnLoad = false;
+        } else {
+            compactIfNeeded();
         }
+        searchIndex.rebuildAsync(new ArrayList<>(history));
+    }
+
+    /**
+     * Returns the version of the last change; it grows with every change.
+     */
+    public long getVersion() {
+        return version;
     }
 
     /**
-     * Adds a listener for history changes.
+     * Adds a listener called right after each change, on the changing thread.
      */
     public void addListener(HistoryChangeListener listener) {
-        listeners.add(listener);
+        addListener(listener, Runnable::run);
+    }
+
+    /**
+     * Adds a listener called on the given executor. Changes published before
+     * the executor runs are delivered together in one batch.
+     */
+    public void addListener(HistoryChangeListener listener, Executor executor) {
+        listeners.add(new Subscription(listener, executor));
     }
 
     /**
      * Removes a listener.
      */
     public void removeListener(HistoryChangeListener listener) {
-        listeners.remove(listener);
+        listeners.removeIf(subscription -> subscription.listener == listener);
+    }
+
+    /**
+     * Sends the changes recorded by the current operation to all listeners.
+     */
+    private void publishChanges() {
+        if (pendingChanges.isEmpty()) {
+            return;
+        }
+        List<HistoryChange> batch = new ArrayList<>(pendingChanges);
+        pendingChanges.clear();
+        for (Subscription subscription : listeners) {
+            subscription.publish(batch);
+        }
     }
 
     /**
-     * Notifies all listeners of history changes.
+     * A listener with its executor and the changes waiting for delivery.
      */
-    private void notifyListeners() {
-        for (HistoryChangeListener listener : listeners) {
-            listener.onHistoryChanged();
+    private static final class Subscription {
+        private final HistoryChangeListener listener;
+        private final Executor executor;
+        private final List<HistoryChange> queued = new ArrayList<>();
+        private boolean scheduled = false;
+
+        Subscription(HistoryChangeListener listener, Executor executor) {
+            this.listener = listener;
+            this.executor = executor;
+        }
+
+        void publish(List<HistoryChange> batch) {
+            synchronized (this) {
+                queued.addAll(batch);
+                if (scheduled) return;
+                scheduled = true;
+            }
+            executor.execute(this::deliver);
+        }
+
+        private void deliver() {
+            List<HistoryChange> changes;
+            synchronized (this) {
+                changes = new ArrayList<>(queued);
+                queued.clear();
+                scheduled = false;
+            }
+            listener.onHistoryChanged(changes);
         }
     }
 
@@ -165,6 +549,9 @@ public class HistoryManager {
      */
     @FunctionalInterface
     public interface HistoryChangeListener {
-        void onHistoryChanged();
+        /**
+         * Receives the changes since the previous call, in order.
+         */
+        void onHistoryChanged(List<HistoryChange> changes);
     }
 }
@@ -0,0 +1,278 @@
+package com.textstyle.util;
+
+import com.textstyle.model.HistoryEntry;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * In-memory trigram index over history texts for substring search.
+ * Texts are accent-folded and lowercased; every position of a text starts one
+ * trigram (the end is padded), so queries of one or two characters are answered
+ * from a trigram key range and longer queries by intersecting trigram postings,
+ * then checking the candidates.
+ * Entries whose text is stored outside the entry are indexed and checked on
+ * their preview, so building the index never reads the blob store.
+ * Entries get increasing slots, so postings stay sorted and results come newest
+ * first. Removed entries are only marked; the table is rebuilt in the background
+ * once removals outnumber live entries.
+ */
+public class HistorySearchIndex {
+    private static final int MIN_REMOVED_FOR_REBUILD = 1024;
+    private static final char PAD = '\0';
+
+    private final Object lock = new Object();
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "textstyle-history-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Table table = new Table();
+    private boolean ready = false;
+    private List<Consumer<Table>> pendingDuringBuild;
+
+    /**
+     * Builds the index from the given entries (newest first) in the background.
+     * Until the first build completes, {@link #isReady()} returns false.
+     */
+    public void rebuildAsync(List<HistoryEntry> entries) {
+        synchronized (lock) {
+            if (pendingDuringBuild != null || builder.isShutdown()) return;
+            pendingDuringBuild = new ArrayList<>();
+        }
+        builder.execute(() -> {
+            long start = PerfLog.start();
+            Table built = new Table();
+            for (int i = entries.size() - 1; i >= 0; i--) {
+                built.add(entries.get(i));
+            }
+            synchronized (lock) {
+                for (Consumer<Table> op : pendingDuringBuild) {
+                    op.accept(built);
+                }
+                pendingDuringBuild = null;
+                table = built;
+                ready = true;
+            }
+            PerfLog.log("History index built (" + entries.size() + " entries)", start);
+        });
+    }
+
+    /**
+     * Returns true once the index can answer queries.
+     */
+    public boolean isReady() {
+        synchronized (lock) {
+            return ready;
+        }
+    }
+
+    /**
+     * Indexes a new entry as the newest one.
+     */
+    public void add(HistoryEntry entry) {
+        apply(t -> t.add(entry));
+    }
+
+    /**
+     * Removes an entry from the results.
+     */
+    public void remove(HistoryEntry entry) {
+        apply(t -> t.remove(entry));
+        synchronized (lock) {
+            if (table.needsRebuild() && pendingDuringBuild == null) {
+                rebuildAsync(table.liveEntries());
+            }
+        }
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        apply(Table::clear);
+    }
+
+    /**
+     * Returns up to limit entries whose text contains the query, newest first.
+     * Matching ignores case and accents.
+     */
+    public List<HistoryEntry> search(String query, int limit) {
+        String folded = StyleSearchIndex.fold(query);
+        synchronized (lock) {
+            return table.search(folded, limit);
+        }
+    }
+
+    /**
+     * Returns true when the text contains the query, ignoring case and accents.
+     */
+    public static boolean matches(String text, String query) {
+        return StyleSearchIndex.fold(text).contains(StyleSearchIndex.fold(query));
+    }
+
+    /**
+     * Returns the text searched for an entry: its preview when the text is stored.
+     */
+    public static String searchableText(HistoryEntry entry) {
+        return entry.isStored() ? entry.getStoredPreview() : entry.getText();
+    }
+
+    /**
+     * Stops the background builder; the index keeps answering queries.
+     */
+    public void close() {
+        builder.shutdownNow();
+    }
+
+    /**
+     * Applies a change to the live table, and records it for the table being built.
+     */
+    private void apply(Consumer<Table> op) {
+        synchronized (lock) {
+            op.accept(table);
+            if (pendingDuringBuild != null) {
+                pendingDuringBuild.add(op);
+            }
+        }
+    }
+
+    /**
+     * Slot table and trigram postings; guarded by the index lock once published.
+     */
+    private static final class Table {
+        private final List<HistoryEntry> slots = new ArrayList<>();
+        private final Map<HistoryEntry, Integer> slotOf = new IdentityHashMap<>();
+        private final TreeMap<Long, Postings> postings = new TreeMap<>();
+        private int removed = 0;
+
+        void add(HistoryEntry entry) {
+            if (slotOf.containsKey(entry)) return;
+            int slot = slots.size();
+            slots.add(entry);
+            slotOf.put(entry, slot);
+
+            String text = StyleSearchIndex.fold(searchableText(entry)) + PAD + PAD;
+            for (int i = 0; i + 2 < text.length(); i++) {
+                postings.computeIfAbsent(trigram(text, i), k -> new Postings()).add(slot);
+            }
+        }
+
+        void remove(HistoryEntry entry) {
+            Integer slot = slotOf.remove(entry);
+            if (slot != null) {
+                slots.set(slot, null);
+                removed++;
+            }
+        }
+
+        void clear() {
+            slots.clear();
+            slotOf.clear();
+            postings.clear();
+            removed = 0;
+        }
+
+        boolean needsRebuild() {
+            return removed >= Math.max(MIN_REMOVED_FOR_REBUILD, slotOf.size());
+        }
+
+        List<HistoryEntry> liveEntries() {
+            List<HistoryEntry> live = new ArrayList<>(slotOf.size());
+            for (int i = slots.size() - 1; i >= 0; i--) {
+                if (slots.get(i) != null) live.add(slots.get(i));
+            }
+            return live;
+        }
+
+        List<HistoryEntry> search(String query, int limit) {
+            List<HistoryEntry> result = new ArrayList<>();
+            if (query.isEmpty() || limit <= 0) {
+                return result;
+            }
+            if (query.length() < 3) {
+                return searchShort(query, limit);
+            }
+
+            Set<Long> keys = new HashSet<>();
+            for (int i = 0; i + 2 < query.length(); i++) {
+                keys.add(trigram(query, i));
+            }
+            List<Postings> lists = new ArrayList<>(keys.size());
+            for (Long key : keys) {
+                Postings list = postings.get(key);
+                if (list == null) return result;
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+            Postings smallest = lists.get(0);
+            candidates:
+            for (int i = smallest.size - 1; i >= 0 && result.size() < limit; i--) {
+                int slot = smallest.slots[i];
+                HistoryEntry entry = slots.get(slot);
+                if (entry == null) continue;
+                for (int j = 1; j < lists.size(); j++) {
+                    if (!lists.get(j).contains(slot)) continue candidates;
+                }
+                if (StyleSearchIndex.fold(searchableText(entry)).contains(query)) {
+                    result.add(entry);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Every position starts a padded trigram, so the trigrams starting with
+         * the query locate all of its occurrences without checking the texts.
+         */
+        private List<HistoryEntry> searchShort(String query, int limit) {
+            long from = query.charAt(0) * (1L << 32);
+            long to = from + (1L << 32) - 1;
+            if (query.length() == 2) {
+                from += (long) query.charAt(1) << 16;
+                to = from + 0xFFFF;
+            }
+            BitSet matches = new BitSet(slots.size());
+            for (Postings list : postings.subMap(from, true, to, true).values()) {
+                for (int i = 0; i < list.size; i++) {
+                    matches.set(list.slots[i]);
+                }
+            }
+            List<HistoryEntry> result = new ArrayList<>();
+            for (int slot = matches.previousSetBit(slots.size() - 1);
+                 slot >= 0 && result.size() < limit;
+                 slot = matches.previousSetBit(slot - 1)) {
+                HistoryEntry entry = slots.get(slot);
+                if (entry != null) result.add(entry);
+            }
+            return result;
+        }
+
+        private static long trigram(String text, int i) {
+            return ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+    }
+
+    /**
+     * Ascending slot list of one trigram.
+     */
+    private static final class Postings {
+        private int[] slots = new int[2];
+        private int size = 0;
+
+        void add(int slot) {
+            if (size > 0 && slots[size - 1] == slot) return;
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        boolean contains(int slot) {
+            return Arrays.binarySearch(slots, 0, size, slot) >= 0;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.textstyle.util;
+
+import com.textstyle.model.HistoryEntry;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Histories of many users (tenants) in one process, for server embeddings.
+ * Each tenant has its own {@link HistoryManager} with bounded capacity, files
+ * in its own directory under the root, and its own lock, so tenants never
+ * contend with each other. Tenant lookup is a lock-free map read.
+ * At most maxResidentTenants histories stay in memory; when more are opened,
+ * the least recently used idle ones are written to disk and closed, and are
+ * loaded again on their next use. Idle histories are kept in least recently
+ * used order, so finding the one to evict does not scan every tenant.
+ * Evicted histories are closed outside any lock; a tenant opened again waits
+ * for its previous close before loading its files.
+ */
+public class HistoryStore {
+    private final Path root;
+    private final int capacityPerTenant;
+    private final int maxResidentTenants;
+    private final HistoryDurability durability;
+    private final Map<String, Tenant> tenants = new ConcurrentHashMap<>();
+    // Tenants without users, least recently released first; may hold stale entries
+    private final Map<String, Tenant> idle = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<Void>> closing = new ConcurrentHashMap<>();
+
+    /**
+     * @param root directory holding one subdirectory per tenant
+     * @param capacityPerTenant maximum number of entries per tenant
+     * @param maxResidentTenants maximum number of histories kept in memory
+     */
+    public HistoryStore(Path root, int capacityPerTenant, int maxResidentTenants,
+                        HistoryDurability durability) {
+        if (maxResidentTenants <= 0) {
+            throw new IllegalArgumentException("maxResidentTenants must be positive: " + maxResidentTenants);
+        }
+        this.root = root;
+        this.capacityPerTenant = capacityPerTenant;
+        this.maxResidentTenants = maxResidentTenants;
+        this.durability = durability;
+    }
+
+    /**
+     * Runs an action on a tenant's history, loading it first if needed.
+     * The history is not evicted while the action runs. The manager must not
+     * be kept after the action returns.
+     */
+    public <T> T withHistory(String tenantId, Function<HistoryManager, T> action) {
+        Tenant tenant = acquire(tenantId);
+        try {
+            return action.apply(tenant.manager);
+        } finally {
+            release(tenantId, tenant);
+        }
+    }
+
+    /**
+     * Adds a text to a tenant's history.
+     */
+    public void addEntry(String tenantId, String text) {
+        withHistory(tenantId, manager -> {
+            manager.addEntry(text);
+            return null;
+        });
+    }
+
+    /**
+     * Returns a copy of a tenant's entries, newest first.
+     */
+    public List<HistoryEntry> getAllEntries(String tenantId) {
+        return withHistory(tenantId, HistoryManager::getAllEntries);
+    }
+
+    /**
+     * Searches a tenant's history; see {@link HistoryManager#search(String, int)}.
+     */
+    public List<HistoryEntry> search(String tenantId, String query, int limit) {
+        return withHistory(tenantId, manager -> manager.search(query, limit));
+    }
+
+    /**
+     * Clears a tenant's history.
+     */
+    public void clearHistory(String tenantId) {
+        withHistory(tenantId, manager -> {
+            manager.clearHistory();
+            return null;
+        });
+    }
+
+    /**
+     * Returns the number of histories currently in memory.
+     */
+    public int residentCount() {
+        return tenants.size();
+    }
+
+    /**
+     * Writes every resident history to disk and closes it.
+     */
+    public void close() {
+        for (Map.Entry<String, Tenant> entry : tenants.entrySet()) {
+            evict(entry.getKey(), entry.getValue(), true);
+        }
+        synchronized (idle) {
+            idle.clear();
+        }
+    }
+
+    private Tenant acquire(String tenantId) {
+        Tenant tenant;
+        while (true) {
+            tenant = tenants.computeIfAbsent(tenantId, this::open);
+            synchronized (tenant) {
+                // An evicted tenant is already out of the map once its lock is free
+                if (!tenant.evicted) {
+                    tenant.users++;
+                    if (!tenant.loaded) {
+                        // The files are free once an earlier history of this tenant is closed
+                        CompletableFuture<Void> previous = closing.get(tenantId);
+                        if (previous != null) {
+                            previous.join();
+                        }
+                        // Loaded under the tenant lock: other users of this tenant wait, others do not
+                        tenant.manager.load();
+                        tenant.loaded = true;
+                    }
+                    break;
+                }
+            }
+        }
+        synchronized (idle) {
+            idle.remove(tenantId, tenant);
+        }
+        evictIdle();
+        return tenant;
+    }
+
+    private void release(String tenantId, Tenant tenant) {
+        boolean unused;
+        synchronized (tenant) {
+            tenant.users--;
+            unused = tenant.users == 0 && !tenant.evicted;
+        }
+        if (unused) {
+            synchronized (idle) {
+                idle.put(tenantId, tenant);
+            }
+        }
+        evictIdle();
+    }
+
+    private Tenant open(String tenantId) {
+        Path directory = root.resolve(directoryName(tenantId));
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create history directory " + directory, e);
+        }
+        return new Tenant(new HistoryManager(directory.resolve("history.bin"), null,
+                                             directory.resolve("texts"), capacityPerTenant, durability));
+    }
+
+    /**
+     * Closes the least recently used idle histories while too many are resident.
+     * Entries of tenants in use again or already evicted are dropped on the way.
+     */
+    private void evictIdle() {
+        while (tenants.size() > maxResidentTenants) {
+            Map.Entry<String, Tenant> oldest;
+            synchronized (idle) {
+                Iterator<Map.Entry<String, Tenant>> iterator = idle.entrySet().iterator();
+                if (!iterator.hasNext()) {
+                    return;
+                }
+                oldest = iterator.next();
+                iterator.remove();
+            }
+            evict(oldest.getKey(), oldest.getValue(), false);
+        }
+    }
+
+    /**
+     * Removes a history from the map under its lock, then closes it outside the
+     * lock. Until the close completes, the tenant's next history waits before loading.
+     */
+    private boolean evict(String tenantId, Tenant tenant, boolean force) {
+        CompletableFuture<Void> closed = new CompletableFuture<>();
+        synchronized (tenant) {
+            if (tenant.evicted || (tenant.users > 0 && !force)) {
+                return false;
+            }
+            tenant.evicted = true;
+            closing.put(tenantId, closed);
+            tenants.remove(tenantId, tenant);
+        }
+        try {
+            tenant.manager.close();
+        } finally {
+            closing.remove(tenantId, closed);
+            closed.complete(null);
+        }
+        return true;
+    }
+
+    /**
+     * Directory names are the hash of the id, never the id itself: ids differing
+     * only in case ("Alice", "alice") would otherwise share a directory on
+     * case-insensitive file systems, and some ids are reserved names on Windows.
+     */
+    static String directoryName(String tenantId) {
+        return BlobStore.keyOf(tenantId).substring(0, 32);
+    }
+
+    /**
+     * A resident history with its use count.
+     */
+    private static final class Tenant {
+        private final HistoryManager manager;
+        private int users = 0;
+        private boolean loaded = false;
+        private boolean evicted = false;
+
+        Tenant(HistoryManager manager) {
+            this.manager = manager;
+        }
+    }
+}
@@ -1,23 +1,33 @@
 package com.textstyle.util;
 
-import java.io.*;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.StringBinding;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+
 import java.text.MessageFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Internationalization manager for the application.
  * Handles loading and accessing translated messages with locale persistence.
  * Version 2.0.1 - Added locale preference saving
+ * The messages of the current locale live in an immutable {@link Snapshot}
+ * published through a volatile field, so any thread can read them without
+ * locking. Message formats are compiled once per locale, and missing keys are
+ * remembered so they are reported only once.
+ * The UI binds node texts to {@link #binding(String)} expressions, which
+ * follow {@link #localeProperty()}: switching language updates the existing
+ * nodes instead of rebuilding them.
  */
 public class I18N {
     private static final String BUNDLE_NAME = "i18n.messages";
-    private static ResourceBundle bundle;
-    private static Locale currentLocale;
-    private static final List<LocaleChangeListener> listeners = new ArrayList<>();
-    
-    // Locale preference file
-    private static final String PREFERENCES_FILE = System.getProperty("user.home") + 
-                                                   "/.textstyle_preferences.txt";
+    private static volatile Snapshot snapshot;
+    private static final List<LocaleChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private static final ReadOnlyObjectWrapper<Locale> locale = new ReadOnlyObjectWrapper<>();
+    private static final Map<String, StringBinding> bindings = new HashMap<>();
     
     // Supported locales
     public static final Locale FRENCH = new Locale("fr");
@@ -30,6 +40,10 @@ public class I18N {
     );
     
     static {
+        // The change listener reads each new value, so the property never stays
+        // invalid and every change reaches the bindings depending on it
+        locale.addListener((obs, oldLocale, newLocale) -> notifyListeners());
+        
         // Initialize with saved locale or system locale or French as default
         Locale initialLocale = loadSavedLocale();
         
@@ -45,56 +59,33 @@ public class I18N {
             }
         }
         
-        setLocale(initialLocale);
+        // Applied without saving: nothing is written to disk during startup.
+        // This first set runs on whichever thread initializes the class, the
+        // "messages" startup task in the application; that is safe only because
+        // no binding or listener exists yet.
+        applyLocale(initialLocale);
     }
     
     /**
-     * Loads the saved locale from preferences file.
+     * Loads the saved locale from the application preferences.
      */
     private static Locale loadSavedLocale() {
-        File file = new File(PREFERENCES_FILE);
-        if (!file.exists()) {
-            return null;
-        }
-        
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String languageCode = reader.readLine();
-            if (languageCode != null && !languageCode.trim().isEmpty()) {
-                for (Locale locale : SUPPORTED_LOCALES) {
-                    if (locale.getLanguage().equals(languageCode.trim())) {
-                        return locale;
-                    }
+        String languageCode = AppPreferences.getString(AppPreferences.LOCALE, null);
+        if (languageCode != null) {
+            for (Locale locale : SUPPORTED_LOCALES) {
+                if (locale.getLanguage().equals(languageCode)) {
+                    return locale;
                 }
             }
-        } catch (IOException e) {
-            System.err.println("Failed to load locale preference: " + e.getMessage());
         }
-        
         return null;
     }
     
-    /**
-     * Saves the current locale to preferences file.
-     */
-    private static void saveLocale(Locale locale) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(PREFERENCES_FILE))) {
-            writer.write(locale.getLanguage());
-            writer.newLine();
-        } catch (IOException e) {
-            System.err.println("Failed to save locale preference: " + e.getMessage());
-        }
-    }
-    
     /**
      * Gets a translated message by key.
      */
     public static String get(String key) {
-        try {
-            return bundle.getString(key);
-        } catch (MissingResourceException e) {
-            System.err.println("Missing translation key: " + key);
-            return "!" + key + "!";
-        }
+        return snapshot.get(key);
     }
     
     /**
@@ -102,13 +93,7 @@ public class I18N {
      * Uses MessageFormat for placeholders {0}, {1}, etc.
      */
     public static String get(String key, Object... params) {
-        String pattern = get(key);
-        try {
-            return MessageFormat.format(pattern, params);
-        } catch (IllegalArgumentException e) {
-            System.err.println("Error formatting message: " + key);
-            return pattern;
-        }
+        return snapshot.format(key, params);
     }
     
     /**
@@ -124,28 +109,58 @@ public class I18N {
     
     /**
      * Changes the current locale and saves it to preferences.
+     * Listeners are notified when the locale actually changes.
      */
     public static void setLocale(Locale locale) {
+        locale = applyLocale(locale);
+        
+        // Save locale preference (in the background, only if it changed)
+        AppPreferences.set(AppPreferences.LOCALE, locale.getLanguage());
+    }
+    
+    private static Locale applyLocale(Locale locale) {
         if (!SUPPORTED_LOCALES.contains(locale)) {
             System.err.println("Unsupported locale: " + locale + ", using French");
             locale = FRENCH;
         }
         
-        currentLocale = locale;
-        bundle = ResourceBundle.getBundle(BUNDLE_NAME, locale);
+        snapshot = new Snapshot(locale, ResourceBundle.getBundle(BUNDLE_NAME, locale));
         Locale.setDefault(locale);
-        
-        // Save locale preference
-        saveLocale(locale);
-        
-        notifyListeners();
+        I18N.locale.set(locale);
+        return locale;
     }
     
     /**
      * Gets the current locale.
      */
     public static Locale getCurrentLocale() {
-        return currentLocale;
+        return snapshot.locale;
+    }
+    
+    /**
+     * Returns the current locale as an observable property.
+     * It changes on the thread calling {@link #setLocale(Locale)}, the FX thread in the application.
+     * Its first value is set during class initialization, on the startup thread that
+     * first uses this class, before any binding to it can exist.
+     */
+    public static ReadOnlyObjectProperty<Locale> localeProperty() {
+        return locale.getReadOnlyProperty();
+    }
+    
+    /**
+     * Returns a shared binding to a message that follows the current locale.
+     * Bindings are cached by key; use them on the FX thread.
+     */
+    public static StringBinding binding(String key) {
+        return bindings.computeIfAbsent(key, k -> Bindings.createStringBinding(() -> get(k), locale));
+    }
+    
+    /**
+     * Returns a binding to a message formatted with the given parameters,
+     * following the current locale.
+     */
+    public static StringBinding binding(String key, Object... params) {
+        return Bindings.createStringBinding(() -> get(key, params), locale);
     }
     
     /**
@@ -181,10 +196,71 @@ public class I18N {
      */
     private static void notifyListeners() {
         for (LocaleChangeListener listener : listeners) {
-            listener.onLocaleChanged(currentLocale);
+            listener.onLocaleChanged(snapshot.locale);
         }
     }
     
+    /**
+     * Messages of one locale, read from its bundle once, with one MessageFormat
+     * per pattern that has arguments.
+     * MessageFormat is not thread-safe, so each format is used under its own lock.
+     */
+    private static final class Snapshot {
+        private static final MessageFormat INVALID = new MessageFormat("");
+
+        private final Locale locale;
+        private final Map<String, String> messages;
+        private final Map<String, MessageFormat> formats = new ConcurrentHashMap<>();
+        private final Set<String> missing = ConcurrentHashMap.newKeySet();
+
+        Snapshot(Locale locale, ResourceBundle bundle) {
+            this.locale = locale;
+            Map<String, String> loaded = new HashMap<>();
+            for (String key : bundle.keySet()) {
+                String pattern = bundle.getString(key);
+                loaded.put(key, pattern);
+                if (pattern.indexOf('{') >= 0) {
+                    formats.put(key, compile(key, pattern));
+                }
+            }
+            this.messages = Collections.unmodifiableMap(loaded);
+        }
+
+        String get(String key) {
+            String message = messages.get(key);
+            if (message != null) {
+                return message;
+            }
+            if (missing.add(key)) {
+                System.err.println("Missing translation key: " + key);
+            }
+            return "!" + key + "!";
+        }
+
+        String format(String key, Object... params) {
+            String pattern = get(key);
+            if (!messages.containsKey(key)) {
+                return pattern;
+            }
+            MessageFormat format = formats.computeIfAbsent(key, k -> compile(k, pattern));
+            if (format == INVALID) {
+                return pattern;
+            }
+            synchronized (format) {
+                return format.format(params);
+            }
+        }
+
+        private MessageFormat compile(String key, String pattern) {
+            try {
+                return new MessageFormat(pattern, locale);
+            } catch (IllegalArgumentException e) {
+                System.err.println("Error formatting message: " + key);
+                return INVALID;
+            }
+        }
+    }
+
     /**
      * Interface for listening to locale changes.
      */
@@ -239,4 +315,16 @@ public class I18N {
     public static String styleDescription(String styleId) {
         return get("style.desc." + styleId);
     }
+    
+    public static StringBinding categoryBinding(String categoryKey) {
+        return binding("category." + categoryKey);
+    }
+    
+    public static StringBinding styleNameBinding(String styleId) {
+        return binding("style." + styleId);
+    }
+    
+    public static StringBinding styleDescriptionBinding(String styleId) {
+        return binding("style.desc." + styleId);
+    }
 }
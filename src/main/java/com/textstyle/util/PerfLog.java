@@ -0,0 +1,38 @@
+package com.textstyle.util;
+
+/**
+ * Lightweight timing helper for performance diagnostics.
+ * Enabled with the system property {@code -Dtextstyle.perf=true};
+ * when disabled, logging calls are no-ops.
+ */
+public final class PerfLog {
+    private static final boolean ENABLED = Boolean.getBoolean("textstyle.perf");
+
+    private PerfLog() {
+    }
+
+    /**
+     * Returns true when performance logging is enabled.
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Returns a start timestamp for a later call to {@link #log(String, long)}.
+     */
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Logs the time elapsed since the given start timestamp.
+     */
+    public static void log(String label, long startNanos) {
+        if (!ENABLED) {
+            return;
+        }
+        double millis = (System.nanoTime() - startNanos) / 1_000_000.0;
+        System.out.println(String.format("[perf] %s: %.3f ms", label, millis));
+    }
+}
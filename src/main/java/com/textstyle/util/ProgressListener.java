@@ -0,0 +1,10 @@
+package com.textstyle.util;
+
+/**
+ * Receives the progress of an export: the number of items written so far
+ * (history entries or styles) and the total.
+ */
+@FunctionalInterface
+public interface ProgressListener {
+    void onProgress(long written, long total);
+}
@@ -0,0 +1,148 @@
+package com.textstyle.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * Bounded list ordered newest first, backed by a circular array.
+ * Adding at the front and evicting from the back are O(1); when full,
+ * adding evicts the oldest element. Index 0 is the newest element.
+ * The backing array grows on demand up to the capacity.
+ * Apart from {@link #clear()}, the {@link java.util.List} API is read-only.
+ * Removing from the middle moves the shorter side of the buffer.
+ */
+public class RingBuffer<E> extends AbstractList<E> implements RandomAccess {
+    private static final int INITIAL_SIZE = 16;
+
+    private final int capacity;
+    private Object[] elements;
+    private int head = 0;
+    private int size = 0;
+
+    public RingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.elements = new Object[Math.min(capacity, INITIAL_SIZE)];
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Adds an element as the newest one.
+     * @return the evicted oldest element, or null when nothing was evicted
+     */
+    public E addFirst(E element) {
+        E evicted = null;
+        if (size == elements.length) {
+            if (elements.length < capacity) {
+                grow();
+            } else {
+                evicted = removeLast();
+            }
+        }
+        head = (head - 1 + elements.length) % elements.length;
+        elements[head] = element;
+        size++;
+        modCount++;
+        return evicted;
+    }
+
+    /**
+     * Adds an element as the oldest one, if there is room.
+     * @return false when the buffer is full
+     */
+    public boolean addLast(E element) {
+        if (size == elements.length) {
+            if (elements.length >= capacity) {
+                return false;
+            }
+            grow();
+        }
+        elements[(head + size) % elements.length] = element;
+        size++;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Removes and returns the oldest element.
+     */
+    @SuppressWarnings("unchecked")
+    public E removeLast() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int index = (head + size - 1) % elements.length;
+        E element = (E) elements[index];
+        elements[index] = null;
+        size--;
+        modCount++;
+        return element;
+    }
+
+    /**
+     * Removes and returns the element at the given index (0 = newest).
+     * Moves the shorter side of the buffer, so it is O(min(index, size - index)).
+     * This is deliberate: indices are what views, range queries and change
+     * deltas are expressed in, and any structure keeping them stable after a
+     * move to the front must renumber the elements in between anyway. Moving
+     * a reference costs about a nanosecond, so even the largest histories
+     * take microseconds.
+     */
+    public E removeAt(int index) {
+        E element = get(index);
+        int length = elements.length;
+        if (index < size / 2) {
+            for (int i = index; i > 0; i--) {
+                elements[(head + i) % length] = elements[(head + i - 1) % length];
+            }
+            elements[head] = null;
+            head = (head + 1) % length;
+        } else {
+            for (int i = index; i < size - 1; i++) {
+                elements[(head + i) % length] = elements[(head + i + 1) % length];
+            }
+            elements[(head + size - 1) % length] = null;
+        }
+        size--;
+        modCount++;
+        return element;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return (E) elements[(head + index) % elements.length];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(elements, null);
+        head = 0;
+        size = 0;
+        modCount++;
+    }
+
+    private void grow() {
+        Object[] grown = new Object[(int) Math.min(capacity, elements.length * 2L)];
+        for (int i = 0; i < size; i++) {
+            grown[i] = elements[(head + i) % elements.length];
+        }
+        elements = grown;
+        head = 0;
+    }
+}
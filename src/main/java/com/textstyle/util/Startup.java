@@ -0,0 +1,59 @@
+package com.textstyle.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the application's startup tasks in parallel on background threads.
+ * Each task names the tasks it depends on and starts as soon as they are done;
+ * the FX thread only waits, with {@code join()}, on the tasks it actually needs.
+ * A failed task fails the tasks depending on it. The worker threads are
+ * daemons and end on their own once idle.
+ */
+public final class Startup {
+    private final long startNanos = System.nanoTime();
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "textstyle-startup-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Starts a task computing a result once all its dependencies have completed.
+     */
+    public <T> CompletableFuture<T> call(String name, Callable<T> task, CompletableFuture<?>... dependencies) {
+        return CompletableFuture.allOf(dependencies).thenApplyAsync(ignored -> {
+            long start = PerfLog.start();
+            try {
+                T result = task.call();
+                PerfLog.log("Startup " + name, start);
+                return result;
+            } catch (Exception e) {
+                System.err.println("Startup task failed: " + name + " (" + e.getMessage() + ")");
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Starts a task once all its dependencies have completed.
+     */
+    public CompletableFuture<Void> run(String name, Runnable task, CompletableFuture<?>... dependencies) {
+        return call(name, () -> {
+            task.run();
+            return null;
+        }, dependencies);
+    }
+
+    /**
+     * Returns the milliseconds elapsed since this startup began.
+     */
+    public long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,149 @@
+package com.textstyle.util;
+
+import com.textstyle.model.TextStyle;
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+/**
+ * Writes the conversion of one text in every style to a file.
+ * Each conversion goes straight from the style converter through an escaping
+ * writer to the buffered file, so no styled variant is held in memory.
+ */
+public final class StyleExporter {
+
+    /**
+     * Export file formats.
+     */
+    public enum Format {
+        /** One object with the source text and a styles array. */
+        JSON("json", EscapingWriter.Syntax.JSON),
+        /** id, name, category, text; RFC 4180 quoting. */
+        CSV("csv", EscapingWriter.Syntax.CSV),
+        /** Standalone page with one table row per style. */
+        HTML("html", EscapingWriter.Syntax.HTML);
+
+        private final String extension;
+        private final EscapingWriter.Syntax syntax;
+
+        Format(String extension, EscapingWriter.Syntax syntax) {
+            this.extension = extension;
+            this.syntax = syntax;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Returns the format matching a file name's extension, or null.
+         */
+        public static Format forFileName(String fileName) {
+            String lower = fileName.toLowerCase();
+            for (Format format : values()) {
+                if (lower.endsWith("." + format.extension)) {
+                    return format;
+                }
+            }
+            return null;
+        }
+    }
+
+    private StyleExporter() {
+    }
+
+    /**
+     * Writes the conversions of the text in the given styles to the file.
+     */
+    public static void export(String text, Collection<TextStyle> styles, Path file, Format format,
+                              ProgressListener progress) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(
+                 Channels.newOutputStream(channel), StandardCharsets.UTF_8), 64 * 1024)) {
+            write(text, styles, writer, format, progress);
+        }
+    }
+
+    /**
+     * Writes the conversions of the text in the given styles, in order.
+     */
+    public static void write(String text, Collection<TextStyle> styles, Writer out, Format format,
+                             ProgressListener progress) throws IOException {
+        Writer escaped = new EscapingWriter(out, format.syntax);
+        int total = styles.size();
+        int written = 0;
+
+        switch (format) {
+            case JSON:
+                out.write("{\"text\":\"");
+                escaped.write(text);
+                out.write("\",\"styles\":[");
+                break;
+            case CSV:
+                out.write("id,name,category,text\r\n");
+                break;
+            case HTML:
+                out.write("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"UTF-8\">\n<title>");
+                escaped.write(Graphemes.prefix(text, 80).replace('\n', ' '));
+                out.write("</title>\n</head>\n<body>\n<table>\n<tr><th>Style</th><th>Category</th><th>Text</th></tr>\n");
+                break;
+        }
+
+        for (TextStyle style : styles) {
+            switch (format) {
+                case JSON:
+                    out.write(written == 0 ? "\n{\"id\":\"" : ",\n{\"id\":\"");
+                    escaped.write(style.getId());
+                    out.write("\",\"name\":\"");
+                    escaped.write(style.getName());
+                    out.write("\",\"category\":\"");
+                    escaped.write(style.getCategory());
+                    out.write("\",\"text\":\"");
+                    style.convertTo(text, escaped);
+                    out.write("\"}");
+                    break;
+                case CSV:
+                    out.write('"');
+                    escaped.write(style.getId());
+                    out.write("\",\"");
+                    escaped.write(style.getName());
+                    out.write("\",\"");
+                    escaped.write(style.getCategory());
+                    out.write("\",\"");
+                    style.convertTo(text, escaped);
+                    out.write("\"\r\n");
+                    break;
+                case HTML:
+                    out.write("<tr><td>");
+                    escaped.write(style.getName());
+                    out.write("</td><td>");
+                    escaped.write(style.getCategory());
+                    out.write("</td><td>");
+                    style.convertTo(text, escaped);
+                    out.write("</td></tr>\n");
+                    break;
+            }
+            written++;
+            if (progress != null) {
+                progress.onProgress(written, total);
+            }
+        }
+
+        switch (format) {
+            case JSON:
+                out.write("\n]}\n");
+                break;
+            case HTML:
+                out.write("</table>\n</body>\n</html>\n");
+                break;
+            default:
+                break;
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,148 @@
+package com.textstyle.util;
+
+import com.textstyle.model.TextStyle;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Search index over the localized names, descriptions and categories of styles.
+ * Texts are accent-folded and split into tokens once per locale; a query matches
+ * a style when every query token is a prefix of one of the style's tokens.
+ * Results are returned in priority order from a precomputed rank.
+ */
+public class StyleSearchIndex {
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final TextStyle[] ranked;
+    private final List<TextStyle> allRanked;
+    private volatile Snapshot snapshot;
+
+    /**
+     * Creates an index over the given styles.
+     * Styles listed in priorityOrder come first, in that order; the others follow by id.
+     */
+    public StyleSearchIndex(Collection<TextStyle> styles, List<String> priorityOrder) {
+        Map<String, Integer> rank = new HashMap<>();
+        for (int i = 0; i < priorityOrder.size(); i++) {
+            rank.put(priorityOrder.get(i), i);
+        }
+
+        this.ranked = styles.toArray(new TextStyle[0]);
+        Arrays.sort(ranked, Comparator
+            .comparingInt((TextStyle s) -> rank.getOrDefault(s.getId(), Integer.MAX_VALUE))
+            .thenComparing(TextStyle::getId));
+        this.allRanked = Collections.unmodifiableList(Arrays.asList(ranked));
+
+        rebuild();
+        I18N.addListener(locale -> rebuild());
+    }
+
+    /**
+     * Rebuilds the token table from the current locale's texts.
+     */
+    public void rebuild() {
+        TreeMap<String, BitSet> postings = new TreeMap<>();
+        for (int i = 0; i < ranked.length; i++) {
+            TextStyle style = ranked[i];
+            for (String text : new String[] { style.getName(), style.getDescription(), style.getCategory() }) {
+                for (String token : tokenize(text)) {
+                    postings.computeIfAbsent(token, k -> new BitSet(ranked.length)).set(i);
+                }
+            }
+        }
+        snapshot = new Snapshot(postings.keySet().toArray(new String[0]),
+                                postings.values().toArray(new BitSet[0]));
+    }
+
+    /**
+     * Returns the styles matching the query, in priority order.
+     * An empty query returns every style.
+     */
+    public List<TextStyle> query(String query) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return allRanked;
+        }
+
+        Snapshot current = snapshot;
+        BitSet matches = null;
+        for (String term : terms) {
+            BitSet termMatches = current.prefixMatches(term, ranked.length);
+            if (matches == null) {
+                matches = termMatches;
+            } else {
+                matches.and(termMatches);
+            }
+            if (matches.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+
+        List<TextStyle> result = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            result.add(ranked[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns every indexed style in priority order.
+     */
+    public List<TextStyle> getAllRanked() {
+        return allRanked;
+    }
+
+    /**
+     * Lowercases, strips accents and splits the text into word tokens.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        String folded = fold(text);
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_WORD.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Lowercases the text and strips its accents.
+     */
+    static String fold(String text) {
+        return MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                    .replaceAll("")
+                    .toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Immutable sorted token table for one locale.
+     */
+    private static final class Snapshot {
+        private final String[] tokens;
+        private final BitSet[] postings;
+
+        Snapshot(String[] tokens, BitSet[] postings) {
+            this.tokens = tokens;
+            this.postings = postings;
+        }
+
+        BitSet prefixMatches(String prefix, int size) {
+            BitSet result = new BitSet(size);
+            int index = Arrays.binarySearch(tokens, prefix);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            while (index < tokens.length && tokens[index].startsWith(prefix)) {
+                result.or(postings[index]);
+                index++;
+            }
+            return result;
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.textstyle.util;
 
 import com.textstyle.model.TextStyle;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.function.BiFunction;
 
 /**
  * Central factory for creating all Unicode text styles.
@@ -11,6 +14,8 @@ import java.util.*;
 public class TextStyler {
     private final Map<String, TextStyle> styles;
     private final Map<String, List<String>> categories;
+    // Mixed into the seeds of random decorations, so they differ between sessions
+    private final long decorationSalt = new Random().nextLong();
 
     public TextStyler() {
         this.styles = new LinkedHashMap<>();
@@ -106,31 +111,30 @@ public class TextStyler {
 
         // UPSIDE DOWN
         addStyleWithConverter("upsideDown", "UNDO", "Transform",
-                this::toUpsideDown);
+                TextStyle.StyleConverter.reversing(this::toUpsideDown));
 
         // REVERSED
         addStyleWithConverter("reversed", "EXCHANGE", "Transform",
-                text -> new StringBuilder(text).reverse().toString());
+                TextStyle.StyleConverter.reversing(text -> new StringBuilder(text).reverse().toString()));
 
         // WIDE
         addStyleWithConverter("wide", "ARROWS_H", "Transform",
                 text -> String.join(" ", text.split("")));
 
         // CUTE/KAWAII
-        addStyleWithConverter("cute", "HEART", "Decorative", text -> {
+        addStyleWithConverter("cute", "HEART", "Decorative", seededConverter((text, rand) -> {
             String[] decorations = {"✧", "♡", "✿", "❀", "⊹", "˚", "✩", "★", "☆"};
-            Random rand = new Random();
             String deco1 = decorations[rand.nextInt(decorations.length)];
             String deco2 = decorations[rand.nextInt(decorations.length)];
             return deco1 + " " + text + " " + deco2;
-        });
+        }));
 
         // ZALGO (2 variants)
         addStyleWithConverter("zalgoLight", "GHOST", "Glitch",
-                text -> toZalgo(text, false));
+                seededConverter((text, random) -> toZalgo(text, false, random)));
 
         addStyleWithConverter("zalgoHeavy", "GHOST", "Glitch",
-                text -> toZalgo(text, true));
+                seededConverter((text, random) -> toZalgo(text, true, random)));
     }
 
     private void addStyle(String id, String icon, String category, Map<Character, String> charMap) {
@@ -146,6 +150,28 @@ public class TextStyler {
         categories.computeIfAbsent(category, k -> new ArrayList<>()).add(id);
     }
 
+    /**
+     * Creates a converter whose random choices are seeded from the whole input
+     * and a per-session salt, so a card preview, its copy and its full view show
+     * the same decorations. Unlike earlier versions, generating the same text
+     * again keeps them; they change from one session to the next.
+     */
+    private TextStyle.StyleConverter seededConverter(BiFunction<String, Random, String> conversion) {
+        return new TextStyle.StyleConverter() {
+            @Override
+            public String convert(String text) {
+                return conversion.apply(text, new Random(decorationSalt ^ text.hashCode()));
+            }
+
+            @Override
+            public String convertPrefix(String text, int maxGraphemes) {
+                long seed = decorationSalt ^ text.hashCode();
+                return TextStyle.StyleConverter.convertHead(text, maxGraphemes,
+                        head -> conversion.apply(head, new Random(seed)));
+            }
+        };
+    }
+
     // ===== CHARACTER MAP CREATORS =====
 
     private Map<Character, String> createSerifNormalMap() {
@@ -706,7 +732,7 @@ public class TextStyler {
         return result.reverse().toString();
     }
 
-    private String toZalgo(String text, boolean heavy) {
+    private String toZalgo(String text, boolean heavy, Random random) {
         String[] zalgoUp = {
             "\u030d", "\u030e", "\u0304", "\u0305", "\u033f", "\u0311", "\u0306",
             "\u0310", "\u0352", "\u0357", "\u0351", "\u0307", "\u0308", "\u030a",
@@ -732,7 +758,6 @@ public class TextStyler {
         };
         
         int maxMarks = heavy ? 5 : 2;
-        Random random = new Random();
         StringBuilder result = new StringBuilder();
         
         for (char c : text.toCharArray()) {
@@ -785,4 +810,13 @@ public class TextStyler {
     public int getStyleCount() {
         return styles.size();
     }
+
+    /**
+     * Writes the text converted in every style to the file, in style order.
+     * Each conversion is streamed to the file as it is produced.
+     */
+    public void exportAll(String text, Path file, StyleExporter.Format format,
+                          ProgressListener progress) throws IOException {
+        StyleExporter.export(text, styles.values(), file, format, progress);
+    }
 }
@@ -0,0 +1,207 @@
+package com.textstyle;
+
+import com.textstyle.model.ResultsPagination;
+import com.textstyle.model.TextStyle;
+import com.textstyle.util.BundledFonts;
+import com.textstyle.util.I18N;
+import com.textstyle.util.TextStyler;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.layout.FlowPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+/**
+ * Measures node creation and CSS/layout pass times of a results page and of
+ * a history list, built with the inline styles of version 2.0.4 and with the
+ * shared style classes of {@code styles.css}. Both variants use plain texts,
+ * so only the styling differs. Needs a desktop session; run with
+ * <pre>
+ *   mvn test-compile exec:java@card-benchmark
+ * </pre>
+ * and it prints the median of each time over the measured runs.
+ */
+public final class CardRenderingBenchmark {
+    private static final int CARDS_PER_PAGE = 24;
+    private static final int HISTORY_ENTRIES = 50;
+    private static final int WARMUP_RUNS = 20;
+    private static final int RUNS = 50;
+    private static final String SAMPLE_TEXT = "The quick brown fox jumps over the lazy dog";
+
+    // The inline font list of version 2.0.4
+    private static final String INLINE_FONT_FAMILY = "Noto Sans, Noto Sans Math, " +
+                                                     "Noto Sans Symbols, Noto Sans Symbols 2, " +
+                                                     "Noto Color Emoji, STIX Two Math";
+
+    private CardRenderingBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Platform.startup(() -> { });
+
+        TextStyler styler = new TextStyler();
+        List<TextStyle> styles = new ArrayList<>(styler.getAllStyles().values()).subList(0, CARDS_PER_PAGE);
+        List<String> previews = new ArrayList<>();
+        for (TextStyle style : styles) {
+            previews.add(style.convertPrefix(SAMPLE_TEXT, ResultsPagination.MAX_PREVIEW_LENGTH));
+        }
+        // Every font a preview needs is registered before measuring
+        BundledFonts.loadBaseFont();
+        BundledFonts.ensureFontsFor(String.join("", previews));
+
+        CountDownLatch done = new CountDownLatch(1);
+        Platform.runLater(() -> {
+            try {
+                FlowPane container = new FlowPane(15, 15);
+                Scene scene = new Scene(container, 1200, 900);
+                scene.getStylesheets().add(
+                    CardRenderingBenchmark.class.getResource("/css/styles.css").toExternalForm());
+
+                measure("Results page, inline styles", container, () -> {
+                    List<Node> cards = new ArrayList<>();
+                    for (int i = 0; i < styles.size(); i++) {
+                        cards.add(inlineCard(styles.get(i), previews.get(i)));
+                    }
+                    return cards;
+                });
+                measure("Results page, style classes", container, () -> {
+                    List<Node> cards = new ArrayList<>();
+                    for (int i = 0; i < styles.size(); i++) {
+                        cards.add(classCard(styles.get(i), previews.get(i)));
+                    }
+                    return cards;
+                });
+                measure("History list, inline styles", container, () -> historyBoxes(true));
+                measure("History list, style classes", container, () -> historyBoxes(false));
+            } finally {
+                done.countDown();
+            }
+        });
+        done.await();
+        Platform.exit();
+    }
+
+    /**
+     * Times node creation, then a CSS and layout pass over the created nodes.
+     */
+    private static void measure(String label, FlowPane container, Supplier<List<Node>> build) {
+        long[] creation = new long[RUNS];
+        long[] css = new long[RUNS];
+        for (int run = -WARMUP_RUNS; run < RUNS; run++) {
+            long start = System.nanoTime();
+            List<Node> nodes = build.get();
+            long created = System.nanoTime();
+            container.getChildren().setAll(nodes);
+            container.applyCss();
+            container.layout();
+            long laidOut = System.nanoTime();
+            if (run >= 0) {
+                creation[run] = created - start;
+                css[run] = laidOut - created;
+            }
+        }
+        container.getChildren().clear();
+        System.out.println(String.format("%-30s node creation %7.3f ms, CSS pass %7.3f ms",
+                                         label, median(creation), median(css)));
+    }
+
+    private static double median(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2] / 1_000_000.0;
+    }
+
+    private static VBox inlineCard(TextStyle style, String preview) {
+        Label nameLabel = new Label(style.getName());
+        nameLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 14px;");
+        Label descLabel = new Label(style.getDescription());
+        descLabel.setStyle("-fx-text-fill: gray; -fx-font-size: 11px;");
+        descLabel.setWrapText(true);
+        Label previewLabel = new Label(preview);
+        previewLabel.setStyle("-fx-font-family: '" + INLINE_FONT_FAMILY + "'; " +
+                              "-fx-font-size: 16px; " +
+                              "-fx-padding: 10px; " +
+                              "-fx-background-color: #f8f9fa; " +
+                              "-fx-background-radius: 5px; " +
+                              "-fx-border-color: #dee2e6; " +
+                              "-fx-border-width: 1px; " +
+                              "-fx-border-radius: 5px;");
+        Label categoryLabel = new Label(I18N.get("common.category") + ": " + style.getCategory());
+        categoryLabel.setStyle("-fx-text-fill: #0066cc; -fx-font-size: 10px;");
+        return card(nameLabel, descLabel, previewLabel, categoryLabel);
+    }
+
+    private static VBox classCard(TextStyle style, String preview) {
+        Label nameLabel = new Label(style.getName());
+        nameLabel.getStyleClass().add("style-name");
+        Label descLabel = new Label(style.getDescription());
+        descLabel.getStyleClass().add("style-description");
+        descLabel.setWrapText(true);
+        Label previewLabel = new Label(preview);
+        previewLabel.getStyleClass().add("style-preview");
+        Label categoryLabel = new Label(I18N.get("common.category") + ": " + style.getCategory());
+        categoryLabel.getStyleClass().add("style-category");
+        return card(nameLabel, descLabel, previewLabel, categoryLabel);
+    }
+
+    private static VBox card(Label nameLabel, Label descLabel, Label previewLabel, Label categoryLabel) {
+        VBox card = new VBox(10);
+        card.getStyleClass().add("style-card");
+        card.setPadding(new Insets(15));
+        previewLabel.setWrapText(true);
+        previewLabel.setMaxHeight(60);
+        previewLabel.setMinHeight(60);
+
+        Button copyBtn = new Button("📋 " + I18N.get("btn.copy"));
+        copyBtn.getStyleClass().add("copy-button");
+        Button viewBtn = new Button("👁 " + I18N.get("btn.view"));
+        viewBtn.getStyleClass().add("view-button");
+        HBox buttonsBox = new HBox(8, copyBtn, viewBtn);
+        buttonsBox.setAlignment(Pos.CENTER);
+
+        card.getChildren().addAll(nameLabel, descLabel, previewLabel, buttonsBox, categoryLabel);
+        return card;
+    }
+
+    private static List<Node> historyBoxes(boolean inline) {
+        List<Node> boxes = new ArrayList<>();
+        for (int i = 0; i < HISTORY_ENTRIES; i++) {
+            VBox box = new VBox(8);
+            box.getStyleClass().add("history-entry");
+            box.setPadding(new Insets(10));
+
+            Label textLabel = new Label(SAMPLE_TEXT + " " + i);
+            textLabel.setWrapText(true);
+            Label dateLabel = new Label(I18N.get("history.date", "01/01/2026 10:00"));
+            if (inline) {
+                textLabel.setStyle("-fx-font-family: '" + INLINE_FONT_FAMILY + "';");
+                dateLabel.setStyle("-fx-font-size: 10px; -fx-text-fill: gray;");
+            } else {
+                textLabel.getStyleClass().add("history-text");
+                dateLabel.getStyleClass().add("history-date");
+            }
+
+            HBox actions = new HBox(5);
+            actions.setAlignment(Pos.CENTER_LEFT);
+            for (String key : Arrays.asList("btn.edit", "btn.copy", "btn.generate")) {
+                Button button = new Button(I18N.get(key));
+                button.getStyleClass().add("small-button");
+                actions.getChildren().add(button);
+            }
+            box.getChildren().addAll(textLabel, dateLabel, actions);
+            boxes.add(box);
+        }
+        return boxes;
+    }
+}
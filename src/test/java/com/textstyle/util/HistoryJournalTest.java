@@ -0,0 +1,246 @@
+package com.textstyle.util;
+
+import com.textstyle.model.HistoryEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Recovery of a journal whose last record or header is damaged,
+ * migration of the text history files of earlier versions, and ids of
+ * entries added while a journal loads.
+ */
+class HistoryJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void negativeLengthIsCutOff() throws Exception {
+        assertTailIsCutOff(new byte[] { '+', 5, 1,
+            (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+            (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x01 });
+    }
+
+    @Test
+    void lengthPastEndOfFileIsCutOff() throws Exception {
+        // 2^28: far more bytes than the file holds
+        assertTailIsCutOff(new byte[] { '+', 5, 1, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01, 'a' });
+    }
+
+    private void assertTailIsCutOff(byte[] damagedRecord) throws Exception {
+        Path file = directory.resolve("history.bin");
+        HistoryManager manager = new HistoryManager(file, null, directory.resolve("texts"), 50,
+                                                    HistoryDurability.BATCHED);
+        manager.load();
+        manager.addEntry("first");
+        manager.addEntry("second");
+        manager.close();
+        long validLength = Files.size(file);
+
+        Files.write(file, damagedRecord, StandardOpenOption.APPEND);
+
+        HistoryJournal journal = new HistoryJournal(file, null, new BlobStore(directory.resolve("texts"), true),
+                                                    HistoryDurability.BATCHED);
+        List<String> texts = new ArrayList<>();
+        for (HistoryEntry entry : journal.load()) {
+            texts.add(entry.getText());
+        }
+        journal.close();
+
+        assertEquals(Arrays.asList("second", "first"), texts);
+        assertEquals(validLength, Files.size(file));
+    }
+
+    @Test
+    void legacyFileInPlatformCharsetIsMigrated() throws Exception {
+        Charset windows = Charset.forName("windows-1252");
+        Path textFile = directory.resolve("history.txt");
+        Files.write(textFile, ("2|2026-01-02T10:00:00|déjà vu €\n"
+                               + "1|2026-01-01T10:00:00|café\n").getBytes(windows));
+        Path file = directory.resolve("history.bin");
+
+        HistoryJournal journal = openJournal(file, textFile, windows);
+        List<HistoryEntry> entries = journal.load();
+        assertEquals(Arrays.asList("déjà vu €", "café"), texts(entries));
+        assertTrue(journal.needsCompaction(entries.size()));
+        journal.compactAsync(entries);
+        journal.close();
+
+        assertFalse(Files.exists(textFile));
+        assertTrue(Files.exists(directory.resolve("history.txt.bak")));
+        HistoryJournal reopened = openJournal(file, null, windows);
+        assertEquals(Arrays.asList("déjà vu €", "café"), texts(reopened.load()));
+        reopened.close();
+    }
+
+    @Test
+    void undecodableLegacyFileIsLeftInPlace() throws Exception {
+        Path textFile = directory.resolve("history.txt");
+        // Latin-1 bytes: neither ASCII nor UTF-8
+        byte[] content = "1|2026-01-01T10:00:00|café\n".getBytes(StandardCharsets.ISO_8859_1);
+        Files.write(textFile, content);
+
+        HistoryJournal journal = openJournal(directory.resolve("history.bin"), textFile, StandardCharsets.US_ASCII);
+        assertTrue(journal.load().isEmpty());
+        assertFalse(journal.needsCompaction(0));
+        journal.close();
+
+        assertArrayEquals(content, Files.readAllBytes(textFile));
+        assertFalse(Files.exists(directory.resolve("history.txt.bak")));
+    }
+
+    @Test
+    void unknownHeaderIsMovedAside() throws Exception {
+        Path file = directory.resolve("history.bin");
+        // A header from a newer version of the format
+        byte[] content = { 'T', 'S', 'H', 'J', 99, 1, 2, 3 };
+        Files.write(file, content);
+
+        HistoryJournal journal = openJournal(file, null, StandardCharsets.UTF_8);
+        assertTrue(journal.load().isEmpty());
+        journal.appendAdd(new HistoryEntry(1, "new", 0L));
+        journal.close();
+
+        assertArrayEquals(content, Files.readAllBytes(directory.resolve("history.bin.unreadable")));
+        HistoryJournal reopened = openJournal(file, null, StandardCharsets.UTF_8);
+        assertEquals(Arrays.asList("new"), texts(reopened.load()));
+        reopened.close();
+    }
+
+    @Test
+    void storedTextIsWrittenBeforeFlushWhenDurabilityIsOnExit() throws Exception {
+        Path file = directory.resolve("history.bin");
+        Path texts = directory.resolve("texts");
+        String longText = "x".repeat(100_000);
+        HistoryManager manager = new HistoryManager(file, null, texts, 50, HistoryDurability.ON_EXIT);
+        manager.load();
+        manager.addEntry(longText);
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!hasBlob(texts) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(hasBlob(texts), "stored text still waits for a flush");
+        assertFalse(Files.exists(file) && Files.size(file) > 0, "record written before a flush");
+        manager.close();
+
+        HistoryJournal journal = openJournal(file, null, StandardCharsets.UTF_8);
+        assertEquals(Arrays.asList(longText), texts(journal.load()));
+        journal.close();
+    }
+
+    @Test
+    void entriesAddedWhileLoadingGetIdsAboveLoadedOnes() throws Exception {
+        Path file = directory.resolve("history.bin");
+        // Ids an hour ahead, as written before the clock was set back
+        long futureId = System.currentTimeMillis() + 3_600_000L;
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        HistoryJournal.writeHeader(content);
+        // Cleared records make the journal take a while to parse
+        for (int i = 0; i < 50_000; i++) {
+            content.write(addRecord(futureId - 100_000 + i, "cleared " + i));
+        }
+        content.write(record('!', new byte[0]));
+        content.write(addRecord(futureId, "older"));
+        content.write(addRecord(futureId + 1, "newer"));
+        Files.write(file, content.toByteArray());
+
+        HistoryManager manager = new HistoryManager(file, null, directory.resolve("texts"), 50,
+                                                    HistoryDurability.BATCHED);
+        BlockingQueue<Runnable> callbacks = new LinkedBlockingQueue<>();
+        manager.loadAsync(callbacks::add);
+        manager.addEntry("fresh");
+        while (!manager.isLoaded()) {
+            Runnable callback = callbacks.poll(5, TimeUnit.SECONDS);
+            assertNotNull(callback, "history did not load");
+            callback.run();
+        }
+
+        List<HistoryEntry> entries = manager.getAllEntries();
+        assertEquals(Arrays.asList("fresh", "newer", "older"), texts(entries));
+        for (int i = 1; i < entries.size(); i++) {
+            assertTrue(entries.get(i - 1).getId() > entries.get(i).getId(), "ids not decreasing at " + i);
+        }
+        // Moving a loaded entry writes a remove record with its id
+        manager.addEntry("older");
+        manager.close();
+
+        HistoryJournal journal = openJournal(file, null, StandardCharsets.UTF_8);
+        assertEquals(Arrays.asList("older", "fresh", "newer"), texts(journal.load()));
+        journal.close();
+    }
+
+    /**
+     * Builds an add record as the journal writes it, without creating an entry,
+     * so the id does not raise the ids of new entries.
+     */
+    private static byte[] addRecord(long id, String text) {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(payload, id);
+        writeVarLong(payload, 0);
+        writeVarLong(payload, bytes.length);
+        payload.writeBytes(bytes);
+        return record('+', payload.toByteArray());
+    }
+
+    private static byte[] record(char type, byte[] payload) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(type);
+        out.writeBytes(payload);
+        CRC32 crc = new CRC32();
+        crc.update(out.toByteArray());
+        int value = (int) crc.getValue();
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+        return out.toByteArray();
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static boolean hasBlob(Path texts) throws Exception {
+        if (!Files.isDirectory(texts)) {
+            return false;
+        }
+        try (var files = Files.list(texts)) {
+            return files.anyMatch(path -> !path.getFileName().toString().endsWith(".tmp"));
+        }
+    }
+
+    private HistoryJournal openJournal(Path file, Path textFile, Charset legacyCharset) {
+        return new HistoryJournal(file, textFile, new BlobStore(directory.resolve("texts"), true),
+                                  HistoryDurability.BATCHED, legacyCharset);
+    }
+
+    private static List<String> texts(List<HistoryEntry> entries) {
+        List<String> texts = new ArrayList<>();
+        for (HistoryEntry entry : entries) {
+            texts.add(entry.getText());
+        }
+        return texts;
+    }
+}
@@ -0,0 +1,136 @@
+package com.textstyle.util;
+
+import com.textstyle.model.HistoryEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many threads using more tenants than may stay resident, so that eviction,
+ * reopening and use of the same tenant race with each other.
+ * Every operation on a tenant also updates a model of its history; afterwards
+ * each history, and each history reloaded from its journal, must equal its model.
+ */
+class HistoryStoreStressTest {
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 1500;
+    private static final int TENANTS = 24;
+    private static final int MAX_RESIDENT = 4;
+    private static final int CAPACITY = 16;
+    private static final int TEXTS_PER_TENANT = 40;
+    private static final int STORED_TEXT_LENGTH = 20_000;
+
+    @TempDir
+    Path root;
+
+    @Test
+    void concurrentUseMatchesModelAndSurvivesReload() throws Exception {
+        Map<String, Deque<String>> models = new HashMap<>();
+        for (int t = 0; t < TENANTS; t++) {
+            // Ids differing only in case must get separate histories
+            models.put((t % 2 == 0 ? "Tenant" : "tenant") + (t / 2), new ArrayDeque<>());
+        }
+        List<String> tenantIds = new ArrayList<>(models.keySet());
+
+        HistoryStore store = new HistoryStore(root, CAPACITY, MAX_RESIDENT, HistoryDurability.BATCHED);
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int n = 0; n < THREADS; n++) {
+            long seed = n;
+            threads.execute(() -> {
+                Random random = new Random(seed);
+                try {
+                    start.await();
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        String tenantId = tenantIds.get(random.nextInt(tenantIds.size()));
+                        operate(store, tenantId, models.get(tenantId), random);
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            });
+        }
+        start.countDown();
+        threads.shutdown();
+        assertTrue(threads.awaitTermination(2, TimeUnit.MINUTES), "stress run timed out");
+        assertTrue(errors.isEmpty(), () -> "errors during stress run: " + errors);
+        assertTrue(store.residentCount() <= MAX_RESIDENT, "too many resident tenants: " + store.residentCount());
+
+        for (String tenantId : tenantIds) {
+            assertHistory(tenantId, models.get(tenantId), store.getAllEntries(tenantId));
+        }
+        store.close();
+
+        HistoryStore reopened = new HistoryStore(root, CAPACITY, MAX_RESIDENT, HistoryDurability.BATCHED);
+        try {
+            for (String tenantId : tenantIds) {
+                assertHistory(tenantId, models.get(tenantId), reopened.getAllEntries(tenantId));
+            }
+        } finally {
+            reopened.close();
+        }
+    }
+
+    /**
+     * One random operation. The model lock makes the change and its model
+     * update atomic for the tenant; eviction and loading still race with it.
+     */
+    private static void operate(HistoryStore store, String tenantId, Deque<String> model, Random random) {
+        int choice = random.nextInt(100);
+        if (choice < 70) {
+            String text = text(tenantId, random.nextInt(TEXTS_PER_TENANT));
+            store.withHistory(tenantId, manager -> {
+                synchronized (model) {
+                    manager.addEntry(text);
+                    model.remove(text);
+                    model.addFirst(text);
+                    while (model.size() > CAPACITY) {
+                        model.removeLast();
+                    }
+                }
+                return null;
+            });
+        } else if (choice < 73) {
+            store.withHistory(tenantId, manager -> {
+                synchronized (model) {
+                    manager.clearHistory();
+                    model.clear();
+                }
+                return null;
+            });
+        } else if (choice < 88) {
+            String query = "#" + random.nextInt(TEXTS_PER_TENANT) + "#";
+            for (HistoryEntry entry : store.search(tenantId, query, 10)) {
+                String text = entry.isStored() ? entry.getStoredPreview() : entry.getText();
+                assertTrue(text.contains(tenantId + query), () -> "search " + query + " returned " + text);
+            }
+        } else {
+            List<HistoryEntry> entries = store.getAllEntries(tenantId);
+            assertTrue(entries.size() <= CAPACITY, "over capacity: " + entries.size());
+        }
+    }
+
+    /**
+     * Texts contain the tenant id and index; a few are long enough for the blob store.
+     */
+    private static String text(String tenantId, int index) {
+        String text = tenantId + "#" + index + "#";
+        return index % 10 == 9 ? text + "x".repeat(STORED_TEXT_LENGTH) : text;
+    }
+
+    private static void assertHistory(String tenantId, Deque<String> model, List<HistoryEntry> entries) {
+        List<String> texts = new ArrayList<>();
+        for (HistoryEntry entry : entries) {
+            texts.add(entry.getText());
+        }
+        assertEquals(texts.size(), new HashSet<>(texts).size(), tenantId + " has duplicate entries");
+        assertEquals(new ArrayList<>(model), texts, tenantId + " differs from its model");
+    }
+}